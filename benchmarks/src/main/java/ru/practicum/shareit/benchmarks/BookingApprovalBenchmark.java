@@ -0,0 +1,70 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Одобрение и отклонение небольшого числа заявок из нескольких потоков. Чем меньше hotBookings,
+ * тем чаще потоки сталкиваются на одной заявке и одной вещи; изменения, проигравшие гонку,
+ * считаются в rejectedTransitions.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class BookingApprovalBenchmark {
+
+    @Param({"1", "16"})
+    public int hotBookings;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class TransitionCounters {
+
+        public long appliedTransitions;
+        public long rejectedTransitions;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            appliedTransitions = 0;
+            rejectedTransitions = 0;
+        }
+    }
+
+    @Benchmark
+    public BookingDto updateBooking(ShareItState state, TransitionCounters counters) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long bookingId = random.nextInt(hotBookings) + 1;
+        long ownerId = state.ownerOf(state.dataSeeder.itemOfBooking(bookingId));
+        try {
+            BookingDto booking = state.bookingService.updateBooking(bookingId, ownerId,
+                    String.valueOf(random.nextBoolean()));
+            counters.appliedTransitions++;
+            return booking;
+        } catch (ValidationException | ConflictException e) {
+            counters.rejectedTransitions++;
+            return null;
+        }
+    }
+}
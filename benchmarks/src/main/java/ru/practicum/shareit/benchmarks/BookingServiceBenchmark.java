@@ -0,0 +1,46 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingServiceBenchmark {
+
+    @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING"})
+    public String bookingState;
+
+    @Benchmark
+    public List<BookingDto> getBookingsByUser(ShareItState state, SqlCounters counters) {
+        long statements = state.statementCount();
+        List<BookingDto> bookings = state.bookingService.getBookingsByUser(state.randomUserId(), bookingState,
+                0, 20);
+        counters.add(state.statementCount() - statements);
+        return bookings;
+    }
+
+    @Benchmark
+    public List<BookingDto> getBookingsByOwner(ShareItState state, SqlCounters counters) {
+        long statements = state.statementCount();
+        List<BookingDto> bookings = state.bookingService.getBookingsByOwner(state.randomUserId(), bookingState,
+                0, 20);
+        counters.add(state.statementCount() - statements);
+        return bookings;
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.user.User;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Получение пользователя и вещи по номеру через кэш сервисов и напрямую из репозитория.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheBenchmark {
+
+    @Benchmark
+    public User findUserCached(ShareItState state, SqlCounters counters) {
+        long statements = state.statementCount();
+        User user = state.userService.findUser(state.randomUserId());
+        counters.add(state.statementCount() - statements);
+        return user;
+    }
+
+    @Benchmark
+    public Optional<User> findUserInRepository(ShareItState state, SqlCounters counters) {
+        long statements = state.statementCount();
+        Optional<User> user = state.userRepository.findById(state.randomUserId());
+        counters.add(state.statementCount() - statements);
+        return user;
+    }
+
+    @Benchmark
+    public Item findItemCached(ShareItState state, SqlCounters counters) {
+        long statements = state.statementCount();
+        Item item = state.itemServiceImpl.findItem(state.randomItemId());
+        counters.add(state.statementCount() - statements);
+        return item;
+    }
+
+    @Benchmark
+    public Optional<Item> findItemInRepository(ShareItState state, SqlCounters counters) {
+        long statements = state.statementCount();
+        Optional<Item> item = state.itemRepository.findById(state.randomItemId());
+        counters.add(state.statementCount() - statements);
+        return item;
+    }
+}
@@ -0,0 +1,148 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.Status;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Заполняет пустую базу пакетными вставками. Номера сущностей идут подряд с единицы,
+ * поэтому владелец вещи и вещь бронирования вычисляются по номеру без запросов к базе.
+ * Номера бронирований задаются явно, а последовательность bookings_seq переводится за них.
+ */
+public class DataSeeder {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int SEQUENCE_STEP = 50;
+    private static final String[] NAMES = {"Дрель", "Отвёртка", "Стол", "Пила", "Лестница", "Палатка",
+            "Велосипед", "Перфоратор"};
+    private static final Status[] STATUSES = {Status.APPROVED, Status.APPROVED, Status.WAITING, Status.REJECTED};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int users;
+    private final int itemsPerUser;
+    private final int bookingsPerItem;
+    private final int commentsPerItem;
+    private final int requestsPerUser;
+
+    public DataSeeder(JdbcTemplate jdbcTemplate, int users, int itemsPerUser, int bookingsPerItem,
+                      int commentsPerItem, int requestsPerUser) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.users = users;
+        this.itemsPerUser = itemsPerUser;
+        this.bookingsPerItem = bookingsPerItem;
+        this.commentsPerItem = commentsPerItem;
+        this.requestsPerUser = requestsPerUser;
+    }
+
+    public void seed() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>();
+        for (int user = 1; user <= users; user++) {
+            rows.add(new Object[]{"user" + user, "user" + user + "@shareit.ru"});
+        }
+        insert("INSERT INTO users (name, email) VALUES (?, ?)", rows);
+
+        int requests = users * requestsPerUser;
+        for (int request = 1; request <= requests; request++) {
+            rows.add(new Object[]{"Нужна вещь " + NAMES[request % NAMES.length], userOfRequest(request),
+                    Timestamp.valueOf(now.minusMinutes(request))});
+        }
+        insert("INSERT INTO item_requests (description, user_id, created) VALUES (?, ?, ?)", rows);
+
+        for (long item = 1; item <= items(); item++) {
+            String name = NAMES[(int) (item % NAMES.length)];
+            Long requestId = requests > 0 && item % 3 == 0 ? item % requests + 1 : null;
+            rows.add(new Object[]{name + " " + item, "Описание: " + name.toLowerCase() + " в хорошем состоянии",
+                    ownerOf(item), item % 10 != 0, requestId});
+        }
+        insert("INSERT INTO items (name, description, user_id, available, request_id) VALUES (?, ?, ?, ?, ?)", rows);
+
+        long bookingId = 0;
+        for (long item = 1; item <= items(); item++) {
+            for (int booking = 0; booking < bookingsPerItem; booking++) {
+                LocalDateTime start = now.plusDays(booking - bookingsPerItem / 2);
+                rows.add(new Object[]{++bookingId, Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(23)),
+                        item, bookerOf(item, booking), STATUSES[booking % STATUSES.length].name()});
+            }
+        }
+        insert("INSERT INTO bookings (booking_id, start_of_booking, end_of_booking, item_id, user_id, status) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", rows);
+        jdbcTemplate.execute("ALTER SEQUENCE bookings_seq RESTART WITH " + (bookingId + SEQUENCE_STEP));
+
+        for (long item = 1; item <= items(); item++) {
+            for (int comment = 0; comment < commentsPerItem; comment++) {
+                rows.add(new Object[]{"Отзыв " + comment, item, bookerOf(item, comment),
+                        Timestamp.valueOf(now.minusHours(comment + 1))});
+            }
+        }
+        insert("INSERT INTO comments (text, item_id, user_id, created) VALUES (?, ?, ?, ?)", rows);
+    }
+
+    /**
+     * Добавляет пользователя с заданным числом вещей, у каждой из которых bookingsPerItem
+     * бронирований в прошлом и будущем. Вызывается после {@link #seed()}, возвращает номер владельца.
+     */
+    public long seedOwner(int ownerItems) {
+        LocalDateTime now = LocalDateTime.now();
+        String email = "owner" + ownerItems + "@shareit.ru";
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES (?, ?)", "owner" + ownerItems, email);
+        Long ownerId = jdbcTemplate.queryForObject("SELECT user_id FROM users WHERE email = ?", Long.class, email);
+        List<Object[]> rows = new ArrayList<>();
+        for (int item = 1; item <= ownerItems; item++) {
+            String name = NAMES[item % NAMES.length];
+            rows.add(new Object[]{name + " владельца " + item, "Описание: " + name.toLowerCase(), ownerId, true});
+        }
+        insert("INSERT INTO items (name, description, user_id, available) VALUES (?, ?, ?, ?)", rows);
+
+        List<Long> itemIds = jdbcTemplate.queryForList("SELECT item_id FROM items WHERE user_id = ? " +
+                "ORDER BY item_id", Long.class, ownerId);
+        for (Long itemId : itemIds) {
+            for (int booking = 0; booking < bookingsPerItem; booking++) {
+                LocalDateTime start = now.plusDays(booking - bookingsPerItem / 2);
+                rows.add(new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(23)), itemId,
+                        1L, STATUSES[booking % STATUSES.length].name()});
+            }
+        }
+        insert("INSERT INTO bookings (start_of_booking, end_of_booking, item_id, user_id, status) " +
+                "VALUES (?, ?, ?, ?, ?)", rows);
+        return ownerId;
+    }
+
+    public long items() {
+        return (long) users * itemsPerUser;
+    }
+
+    public long bookings() {
+        return items() * bookingsPerItem;
+    }
+
+    public long ownerOf(long itemId) {
+        return (itemId - 1) / itemsPerUser + 1;
+    }
+
+    public long itemOfBooking(long bookingId) {
+        return (bookingId - 1) / bookingsPerItem + 1;
+    }
+
+    private long bookerOf(long itemId, int index) {
+        if (users == 1) {
+            return 1;
+        }
+        return (ownerOf(itemId) + index % (users - 1)) % users + 1;
+    }
+
+    private long userOfRequest(int requestId) {
+        return (requestId - 1) % users + 1;
+    }
+
+    private void insert(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+        rows.clear();
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.mappers.EntityMapper;
+import ru.practicum.shareit.mappers.EntityMapperImpl;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразование сущностей в DTO без базы данных: показывает стоимость маппинга страницы.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EntityMapperBenchmark {
+
+    @Param("20")
+    public int pageSize;
+
+    private final EntityMapper entityMapper = new EntityMapperImpl();
+    private List<Item> items;
+    private List<Booking> bookings;
+    private List<Comment> comments;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        LocalDateTime now = LocalDateTime.now();
+        User owner = new User(1L, "owner", "owner@shareit.ru");
+        User booker = new User(2L, "booker", "booker@shareit.ru");
+        items = new ArrayList<>();
+        bookings = new ArrayList<>();
+        comments = new ArrayList<>();
+        for (long i = 1; i <= pageSize; i++) {
+            Item item = new Item(i, "Дрель " + i, "Простая дрель", true);
+            item.setOwner(owner);
+            items.add(item);
+            bookings.add(new Booking(i, now.plusDays(i), now.plusDays(i + 1), item, booker, Status.APPROVED));
+            comments.add(new Comment(i, "Отзыв " + i, item, booker, now.minusDays(i)));
+        }
+    }
+
+    @Benchmark
+    public void itemsToItemDtos(Blackhole blackhole) {
+        for (Item item : items) {
+            blackhole.consume(entityMapper.itemToItemDto(item));
+        }
+    }
+
+    @Benchmark
+    public void bookingsToBookingDtos(Blackhole blackhole) {
+        for (Booking booking : bookings) {
+            blackhole.consume(entityMapper.bookingToBookingDto(booking));
+        }
+    }
+
+    @Benchmark
+    public void commentsToCommentDtos(Blackhole blackhole) {
+        for (Comment comment : comments) {
+            blackhole.consume(entityMapper.commentToCommentDto(comment));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Обработка ответа сервера в шлюзе: разбор JSON в дерево Map и повторная сериализация против
+ * пересылки байтов. Ответы — страницы бронирований владельца и чужих запросов, построенные
+ * сервисами сервера и сериализованные его ObjectMapper. Разницу в аллокациях показывает -prof gc.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GatewayPassthroughBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class ResponseState {
+
+        @Param({"bookings", "requests"})
+        public String response;
+        @Param({"20", "100"})
+        public int pageSize;
+
+        ObjectMapper objectMapper;
+        byte[] payload;
+
+        @Setup(Level.Trial)
+        public void render(ShareItState state) throws IOException {
+            objectMapper = state.context.getBean(ObjectMapper.class);
+            Object page = "bookings".equals(response)
+                    ? state.bookingService.getBookingsByOwner(1, "ALL", 0, pageSize)
+                    : state.requestService.getOthersRequests(1, 0, pageSize);
+            payload = objectMapper.writeValueAsBytes(page);
+        }
+    }
+
+    @Benchmark
+    public byte[] reserialize(ResponseState state) throws IOException {
+        Object body = state.objectMapper.readValue(state.payload, Object.class);
+        return state.objectMapper.writeValueAsBytes(body);
+    }
+
+    @Benchmark
+    public byte[] passthrough(ResponseState state) {
+        return Arrays.copyOf(state.payload, state.payload.length);
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Список всех вещей одного владельца одной страницей в зависимости от их числа. Пропускная способность
+ * должна падать обратно пропорционально ownerItems, а число запросов на вызов — оставаться постоянным:
+ * бронирования раскладываются по вещам один раз, последнее и следующее ищутся за один проход.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemListingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int ownerItems;
+
+    private long ownerId;
+
+    @Setup(Level.Trial)
+    public void seedOwner(ShareItState state) {
+        ownerId = state.dataSeeder.seedOwner(ownerItems);
+    }
+
+    @Benchmark
+    public List<ItemDto> getItems(ShareItState state, SqlCounters counters) {
+        long statements = state.statementCount();
+        List<ItemDto> items = state.itemService.getItems(ownerId, 0, ownerItems);
+        counters.add(state.statementCount() - statements);
+        return items;
+    }
+}
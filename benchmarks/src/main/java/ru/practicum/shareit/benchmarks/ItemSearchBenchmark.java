@@ -0,0 +1,52 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск вещей через поисковый индекс и запросом LIKE к базе данных.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemSearchBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class SearchState extends ShareItState {
+
+        @Param({"true", "false"})
+        public boolean searchIndex;
+        @Param({"дрель", "хорошем"})
+        public String text;
+
+        @Override
+        protected Map<String, Object> properties() {
+            Map<String, Object> properties = super.properties();
+            properties.put("shareit.search.index.enabled", searchIndex);
+            return properties;
+        }
+    }
+
+    @Benchmark
+    public List<ItemDto> searchItem(SearchState state, SqlCounters counters) {
+        long statements = state.statementCount();
+        List<ItemDto> items = state.itemService.searchItem(state.text, 0, 20);
+        counters.add(state.statementCount() - statements);
+        return items;
+    }
+}
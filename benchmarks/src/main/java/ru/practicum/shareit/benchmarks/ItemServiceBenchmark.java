@@ -0,0 +1,39 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemServiceBenchmark {
+
+    @Benchmark
+    public List<ItemDto> getItems(ShareItState state, SqlCounters counters) {
+        long statements = state.statementCount();
+        List<ItemDto> items = state.itemService.getItems(state.randomUserId(), 0, 20);
+        counters.add(state.statementCount() - statements);
+        return items;
+    }
+
+    @Benchmark
+    public Optional<ItemDto> getItemWithLastAndNextBooking(ShareItState state, SqlCounters counters) {
+        long statements = state.statementCount();
+        long itemId = state.randomItemId();
+        Optional<ItemDto> item = state.itemService.getItem(itemId, state.ownerOf(itemId));
+        counters.add(state.statementCount() - statements);
+        return item;
+    }
+}
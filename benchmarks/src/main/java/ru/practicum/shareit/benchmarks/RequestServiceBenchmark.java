@@ -0,0 +1,40 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Запросы с приложенными ответами: оба метода проходят через заполнение вещей по запросам.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestServiceBenchmark {
+
+    @Benchmark
+    public List<ItemRequestDto> getYoursRequest(ShareItState state, SqlCounters counters) {
+        long statements = state.statementCount();
+        List<ItemRequestDto> requests = state.requestService.getYoursRequest(state.randomUserId());
+        counters.add(state.statementCount() - statements);
+        return requests;
+    }
+
+    @Benchmark
+    public List<ItemRequestDto> getOthersRequests(ShareItState state, SqlCounters counters) {
+        long statements = state.statementCount();
+        List<ItemRequestDto> requests = state.requestService.getOthersRequests(state.randomUserId(), 0, 20);
+        counters.add(state.statementCount() - statements);
+        return requests;
+    }
+}
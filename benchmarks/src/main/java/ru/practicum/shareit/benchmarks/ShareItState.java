@@ -0,0 +1,119 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.BookingOccupancyIndex;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemSearchIndex;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.ItemServiceImpl;
+import ru.practicum.shareit.request.RequestService;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserServiceImpl;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Поднимает контекст сервера без веб-слоя на базе H2 в памяти и заполняет её данными
+ * заданного объёма. Один контекст используется всеми потоками бенчмарка.
+ */
+@State(Scope.Benchmark)
+public class ShareItState {
+
+    @Param("100")
+    public int users;
+    @Param("10")
+    public int itemsPerUser;
+    @Param("10")
+    public int bookingsPerItem;
+    @Param("5")
+    public int commentsPerItem;
+    @Param("2")
+    public int requestsPerUser;
+
+    ConfigurableApplicationContext context;
+    Statistics statistics;
+    DataSeeder dataSeeder;
+    ItemService itemService;
+    ItemServiceImpl itemServiceImpl;
+    BookingService bookingService;
+    RequestService requestService;
+    UserServiceImpl userService;
+    ItemRepository itemRepository;
+    UserRepository userRepository;
+
+    @Setup(Level.Trial)
+    public void start() {
+        String[] args = properties().entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .run(args);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        dataSeeder = new DataSeeder(context.getBean(JdbcTemplate.class), users, itemsPerUser, bookingsPerItem,
+                commentsPerItem, requestsPerUser);
+        dataSeeder.seed();
+        context.getBean(ItemSearchIndex.class).rebuild();
+        context.getBean(BookingOccupancyIndex.class).rebuild();
+        itemService = context.getBean(ItemService.class);
+        itemServiceImpl = context.getBean(ItemServiceImpl.class);
+        bookingService = context.getBean(BookingService.class);
+        requestService = context.getBean(RequestService.class);
+        userService = context.getBean(UserServiceImpl.class);
+        itemRepository = context.getBean(ItemRepository.class);
+        userRepository = context.getBean(UserRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    protected Map<String, Object> properties() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.datasource.driverClassName", "org.h2.Driver");
+        properties.put("spring.datasource.url", "jdbc:h2:mem:benchmarks;DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.username", "benchmarks");
+        properties.put("spring.datasource.password", "benchmarks");
+        properties.put("spring.jpa.properties.hibernate.generate_statistics", true);
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.org.springframework.orm.jpa", "WARN");
+        properties.put("logging.level.org.springframework.transaction", "WARN");
+        properties.put("logging.level.org.springframework.transaction.interceptor", "WARN");
+        properties.put("logging.level.org.springframework.orm.jpa.JpaTransactionManager", "WARN");
+        return properties;
+    }
+
+    public long statementCount() {
+        return statistics.getPrepareStatementCount();
+    }
+
+    public long randomUserId() {
+        return ThreadLocalRandom.current().nextLong(users) + 1;
+    }
+
+    public long randomItemId() {
+        return ThreadLocalRandom.current().nextLong(dataSeeder.items()) + 1;
+    }
+
+    public long ownerOf(long itemId) {
+        return dataSeeder.ownerOf(itemId);
+    }
+}
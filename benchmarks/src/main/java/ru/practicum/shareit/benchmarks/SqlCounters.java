@@ -0,0 +1,28 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Число SQL-запросов, выполненных бенчмарком. Счётчик выводится в тех же единицах, что и
+ * основной результат, поэтому отношение sqlStatements к score — это число запросов на вызов.
+ * Статистика Hibernate общая для всех потоков, поэтому точна только при одном потоке.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class SqlCounters {
+
+    public long sqlStatements;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        sqlStatements = 0;
+    }
+
+    void add(long statements) {
+        sqlStatements += statements;
+    }
+}
@@ -2,14 +2,16 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
 import ru.practicum.shareit.booking.dto.ShortBookingDto;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerTransportFactory;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -18,49 +20,62 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, ServerTransportFactory transports) {
+        super(transports.create(serverUrl + API_PREFIX));
     }
 
-    public ResponseEntity<Object> addBooking(ShortBookingDto shortBookingDto, long userId) {
+    public Mono<ResponseEntity<Object>> addBooking(ShortBookingDto shortBookingDto, long userId) {
         return post("", userId, shortBookingDto);
     }
 
-    public ResponseEntity<Object> updateBooking(long bookingId, long userId, String approved) {
+    public Mono<ResponseEntity<Object>> addBookings(List<ShortBookingDto> shortBookingDtos, long userId) {
+        return post("/batch", userId, shortBookingDtos);
+    }
+
+    public Mono<ResponseEntity<Object>> updateBookings(List<BookingApprovalDto> approvals, long userId) {
+        return patch("/batch", userId, approvals);
+    }
+
+    public Mono<ResponseEntity<Object>> updateBooking(long bookingId, long userId, String approved) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved
         );
         return patch("/" + bookingId + "?approved=" + approved, userId, parameters);
     }
 
-    public ResponseEntity<Object> getBooking(long bookingId, long userId) {
+    public Mono<ResponseEntity<Object>> getBooking(long bookingId, long userId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getBookingsByOwner(Long userId, String state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> getBookingsByOwner(Long userId, String state, Integer from, Integer size, String after) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state,
                 "from", from,
                 "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        ));
+        String path = "/owner?state={state}&from={from}&size={size}";
+        if (after != null) {
+            parameters.put("after", after);
+            path += "&after={after}";
+        }
+        return get(path, userId, parameters);
     }
 
-    public ResponseEntity<Object> getBookingsByUser(Long userId, String state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> getBookingsByUser(Long userId, String state, Integer from, Integer size, String after) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state,
                 "from", from,
                 "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        ));
+        String path = "?state={state}&from={from}&size={size}";
+        if (after != null) {
+            parameters.put("after", after);
+            path += "&after={after}";
+        }
+        return get(path, userId, parameters);
     }
 
-    public void deleteBooking(long bookingId) {
-        delete("", bookingId);
+    public Mono<Void> deleteBooking(long bookingId) {
+        return delete("", bookingId).then();
     }
 }
@@ -4,9 +4,13 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
 import ru.practicum.shareit.booking.dto.ShortBookingDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 /**
  * TODO Sprint add-bookings.
@@ -17,44 +21,62 @@ import javax.validation.Valid;
 @Validated
 public class BookingController {
 
+    private static final int MAX_BATCH_SIZE = 100;
+
     private final BookingClient bookingClient;
 
     @PostMapping
-    public ResponseEntity<Object> addBooking(@Valid @RequestBody ShortBookingDto shortBookingDto,
-                                             @RequestHeader("X-Sharer-User-Id") long userId) {
+    public Mono<ResponseEntity<Object>> addBooking(@Valid @RequestBody ShortBookingDto shortBookingDto,
+                                                   @RequestHeader("X-Sharer-User-Id") long userId) {
         return bookingClient.addBooking(shortBookingDto, userId);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> addBookings(@RequestBody @Size(min = 1, max = MAX_BATCH_SIZE)
+                                                    List<@Valid ShortBookingDto> shortBookingDtos,
+                                                    @RequestHeader("X-Sharer-User-Id") long userId) {
+        return bookingClient.addBookings(shortBookingDtos, userId);
+    }
+
+    @PatchMapping("/batch")
+    public Mono<ResponseEntity<Object>> updateBookings(@RequestBody @Size(min = 1, max = MAX_BATCH_SIZE)
+                                                       List<@Valid BookingApprovalDto> approvals,
+                                                       @RequestHeader("X-Sharer-User-Id") long userId) {
+        return bookingClient.updateBookings(approvals, userId);
+    }
+
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> updateBooking(@PathVariable long bookingId,
-                                                @RequestHeader("X-Sharer-User-Id") long userId,
-                                                @RequestParam String approved) {
+    public Mono<ResponseEntity<Object>> updateBooking(@PathVariable long bookingId,
+                                                      @RequestHeader("X-Sharer-User-Id") long userId,
+                                                      @RequestParam String approved) {
         return bookingClient.updateBooking(bookingId, userId, approved);
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@PathVariable long bookingId, @RequestHeader("X-Sharer-User-Id") long userId) {
+    public Mono<ResponseEntity<Object>> getBooking(@PathVariable long bookingId, @RequestHeader("X-Sharer-User-Id") long userId) {
         return bookingClient.getBooking(bookingId, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
-                                              @RequestParam(defaultValue = "ALL") String state,
-                                              @RequestParam(defaultValue = "0") Integer from,
-                                              @RequestParam(defaultValue = "20") Integer size) {
-        return bookingClient.getBookingsByUser(userId, state, from, size);
+    public Mono<ResponseEntity<Object>> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                    @RequestParam(defaultValue = "ALL") String state,
+                                                    @RequestParam(defaultValue = "0") Integer from,
+                                                    @RequestParam(defaultValue = "20") Integer size,
+                                                    @RequestParam(required = false) String after) {
+        return bookingClient.getBookingsByUser(userId, state, from, size, after);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getOwnersBookings(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                    @RequestParam(defaultValue = "ALL") String state,
-                                                    @RequestParam(defaultValue = "0") Integer from,
-                                                    @RequestParam(defaultValue = "20") Integer size) {
-        return bookingClient.getBookingsByOwner(userId, state, from, size);
+    public Mono<ResponseEntity<Object>> getOwnersBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                          @RequestParam(defaultValue = "ALL") String state,
+                                                          @RequestParam(defaultValue = "0") Integer from,
+                                                          @RequestParam(defaultValue = "20") Integer size,
+                                                          @RequestParam(required = false) String after) {
+        return bookingClient.getBookingsByOwner(userId, state, from, size, after);
     }
 
     @DeleteMapping("/{bookingId}")
-    public void deleteBooking(@PathVariable long bookingId) {
-        bookingClient.deleteBooking(bookingId);
+    public Mono<Void> deleteBooking(@PathVariable long bookingId) {
+        return bookingClient.deleteBooking(bookingId);
     }
 }
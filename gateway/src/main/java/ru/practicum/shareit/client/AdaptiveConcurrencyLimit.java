@@ -0,0 +1,59 @@
+package ru.practicum.shareit.client;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Предел одновременных запросов к ресурсу, подстраиваемый по задержке ответов (AIMD): пока
+ * ответы быстрее порога, а предел используется хотя бы наполовину, он растёт на единицу;
+ * медленный ответ или ошибка сервера уменьшают его в backoff раз. Предел не выходит за
+ * [min, max], где max — жёсткая переборка ресурса, не зависящая от задержки.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private final int min;
+    private final int max;
+    private final long latencyThresholdNanos;
+    private final double backoff;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    public AdaptiveConcurrencyLimit(int initial, int min, int max, long latencyThresholdNanos, double backoff) {
+        this.min = min;
+        this.max = max;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.backoff = backoff;
+        this.limit = Math.max(min, Math.min(max, initial));
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public synchronized void onResponse(long latencyNanos, boolean failed) {
+        if (failed || latencyNanos > latencyThresholdNanos) {
+            limit = Math.max(min, limit * backoff);
+        } else if (inFlight.get() * 2 >= limit) {
+            limit = Math.min(max, limit + 1);
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
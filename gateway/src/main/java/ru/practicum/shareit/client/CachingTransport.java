@@ -0,0 +1,73 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.util.DigestUtils;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Транспорт с кэшем ответов на GET одного ресурса сервера. Успешному ответу с телом в байтах
+ * присваивается ETag, поэтому на запрос с совпадающим If-None-Match контроллер отвечает 304.
+ * Тело в байтах бывает только при shareit-server.passthrough=true: без него ответы не получают
+ * ETag и не кэшируются.
+ * Ключ кэша — путь с параметрами и пользователь. Любой изменяющий запрос к ресурсу сбрасывает
+ * его кэш; ответ GET, начатого до изменения, в кэш уже не попадает. Изменения, пришедшие через
+ * другие ресурсы (например, бронирование вещи), видны по истечении срока жизни записи.
+ */
+public class CachingTransport implements ServerTransport {
+
+    private final ServerTransport delegate;
+    private final Cache<String, ResponseEntity<Object>> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public CachingTransport(ServerTransport delegate, Cache<String, ResponseEntity<Object>> cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public <T> Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                     @Nullable Map<String, Object> parameters, @Nullable T body) {
+        if (method != HttpMethod.GET) {
+            return delegate.exchange(method, path, headers, parameters, body)
+                    .doFinally(signal -> invalidate());
+        }
+        String key = RequestKeys.of(path, headers, parameters);
+        ResponseEntity<Object> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        long started = generation.get();
+        return delegate.exchange(method, path, headers, parameters, body)
+                .map(CachingTransport::withETag)
+                .doOnNext(response -> {
+                    if (response.getStatusCode().is2xxSuccessful() && response.getHeaders().getETag() != null) {
+                        cache.put(key, response);
+                        if (generation.get() != started) {
+                            cache.invalidate(key);
+                        }
+                    }
+                });
+    }
+
+    private void invalidate() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private static ResponseEntity<Object> withETag(ResponseEntity<Object> response) {
+        if (!response.getStatusCode().is2xxSuccessful() || !(response.getBody() instanceof byte[])) {
+            return response;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(response.getHeaders());
+        headers.setETag("\"0" + DigestUtils.md5DigestAsHex((byte[]) response.getBody()) + "\"");
+        return new ResponseEntity<>(response.getBody(), headers, response.getStatusCode());
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Signal;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Объединяет одинаковые GET, выполняющиеся одновременно: на сервер уходит первый запрос,
+ * остальные подписываются на его результат. Запрос удаляется из списка выполняющихся, как
+ * только получен ответ или ошибка либо отписались все ожидающие, поэтому следующий GET снова
+ * идёт на сервер. Изменяющие запросы передаются как есть.
+ */
+public class CoalescingTransport implements ServerTransport {
+
+    private final ServerTransport delegate;
+    private final Counter sent;
+    private final Counter coalesced;
+    private final ConcurrentMap<String, Mono<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+
+    public CoalescingTransport(ServerTransport delegate, Counter sent, Counter coalesced) {
+        this.delegate = delegate;
+        this.sent = sent;
+        this.coalesced = coalesced;
+    }
+
+    @Override
+    public <T> Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                     @Nullable Map<String, Object> parameters, @Nullable T body) {
+        if (method != HttpMethod.GET) {
+            return delegate.exchange(method, path, headers, parameters, body);
+        }
+        String key = RequestKeys.of(path, headers, parameters);
+        return Mono.defer(() -> {
+            boolean[] leader = {false};
+            Mono<ResponseEntity<Object>> call = inFlight.computeIfAbsent(key, k -> {
+                leader[0] = true;
+                return share(k, delegate.exchange(method, path, headers, parameters, body));
+            });
+            (leader[0] ? sent : coalesced).increment();
+            return call;
+        });
+    }
+
+    /**
+     * Делает запрос общим для всех подписчиков. Запрос к серверу отменяется, когда отписались все,
+     * и ключ освобождается при ответе, ошибке или отмене. Подписчик, который взял запрос из списка
+     * перед самым ответом, получает этот же ответ, а не отправляет запрос повторно. Удаляется только
+     * эта же запись: ключ мог уже занять следующий запрос.
+     */
+    private Mono<ResponseEntity<Object>> share(String key, Mono<ResponseEntity<Object>> request) {
+        AtomicReference<Signal<ResponseEntity<Object>>> outcome = new AtomicReference<>();
+        AtomicReference<Mono<ResponseEntity<Object>>> self = new AtomicReference<>();
+        Mono<ResponseEntity<Object>> shared = Mono.defer(() -> {
+                    Signal<ResponseEntity<Object>> known = outcome.get();
+                    if (known != null) {
+                        return Mono.just(known).<ResponseEntity<Object>>dematerialize();
+                    }
+                    return request.materialize()
+                            .doOnNext(outcome::set)
+                            .<ResponseEntity<Object>>dematerialize()
+                            .doFinally(signal -> inFlight.remove(key, self.get()));
+                })
+                .flux()
+                .publish()
+                .refCount(1)
+                .next();
+        self.set(shared);
+        return shared;
+    }
+}
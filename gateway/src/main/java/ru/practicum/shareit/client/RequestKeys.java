@@ -0,0 +1,22 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Ключ запроса к ресурсу: путь, параметры и пользователь. Одинаковые ключи у запросов,
+ * ответы на которые совпадают, поэтому по нему кэшируются и объединяются запросы.
+ */
+final class RequestKeys {
+
+    private RequestKeys() {
+    }
+
+    static String of(String path, HttpHeaders headers, @Nullable Map<String, Object> parameters) {
+        String key = path + '|' + headers.getFirst("X-Sharer-User-Id");
+        return parameters != null ? key + '|' + new TreeMap<>(parameters) : key;
+    }
+}
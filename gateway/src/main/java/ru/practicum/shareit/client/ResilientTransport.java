@@ -0,0 +1,85 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Защищает шлюз от медленного или недоступного ресурса сервера. Запрос сразу получает 503,
+ * если автомат защиты ресурса разомкнут или занят весь предел одновременных запросов, и
+ * поток шлюза не ждёт сервер, который и так не успевает. Ответы 5xx и ошибки соединения
+ * считаются отказами для автомата и уменьшают предел.
+ */
+public class ResilientTransport implements ServerTransport {
+
+    private static final byte[] CIRCUIT_OPEN = error("Сервер временно не отвечает, повторите запрос позже");
+    private static final byte[] LIMIT_EXCEEDED = error("Сервер перегружен, повторите запрос позже");
+
+    private final ServerTransport delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final AdaptiveConcurrencyLimit limit;
+    private final Counter rejected;
+
+    public ResilientTransport(ServerTransport delegate, CircuitBreaker circuitBreaker, AdaptiveConcurrencyLimit limit,
+                              Counter rejected) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+        this.limit = limit;
+        this.rejected = rejected;
+    }
+
+    @Override
+    public <T> Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                     @Nullable Map<String, Object> parameters, @Nullable T body) {
+        return Mono.defer(() -> {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                return Mono.just(unavailable(CIRCUIT_OPEN));
+            }
+            if (!limit.tryAcquire()) {
+                circuitBreaker.releasePermission();
+                rejected.increment();
+                return Mono.just(unavailable(LIMIT_EXCEEDED));
+            }
+            long started = System.nanoTime();
+            return delegate.exchange(method, path, headers, parameters, body)
+                    .doOnNext(response -> {
+                        long latency = System.nanoTime() - started;
+                        if (response.getStatusCode().is5xxServerError()) {
+                            circuitBreaker.onError(latency, TimeUnit.NANOSECONDS,
+                                    new IllegalStateException("Сервер ответил " + response.getStatusCode()));
+                            limit.onResponse(latency, true);
+                        } else {
+                            circuitBreaker.onSuccess(latency, TimeUnit.NANOSECONDS);
+                            limit.onResponse(latency, false);
+                        }
+                    })
+                    .doOnError(e -> {
+                        long latency = System.nanoTime() - started;
+                        circuitBreaker.onError(latency, TimeUnit.NANOSECONDS, e);
+                        limit.onResponse(latency, true);
+                    })
+                    .doOnCancel(circuitBreaker::releasePermission)
+                    .doFinally(signal -> limit.release());
+        });
+    }
+
+    private static ResponseEntity<Object> unavailable(byte[] body) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    private static byte[] error(String message) {
+        return ("{\"Сервис недоступен.\":\"" + message + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+}
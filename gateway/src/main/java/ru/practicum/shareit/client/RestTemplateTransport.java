@@ -0,0 +1,50 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Блокирующий транспорт: запрос выполняется в потоке, подписавшемся на результат, то есть
+ * в потоке Tomcat, который ждёт ответа сервера.
+ */
+public class RestTemplateTransport implements ServerTransport {
+
+    private final RestTemplate rest;
+    private final Class<?> bodyType;
+
+    public RestTemplateTransport(RestTemplate rest, Class<?> bodyType) {
+        this.rest = rest;
+        this.bodyType = bodyType;
+    }
+
+    @Override
+    public <T> Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                     @Nullable Map<String, Object> parameters, @Nullable T body) {
+        return Mono.fromCallable(() -> send(method, path, new HttpEntity<>(body, headers), parameters));
+    }
+
+    private <T> ResponseEntity<Object> send(HttpMethod method, String path, HttpEntity<T> requestEntity,
+                                            @Nullable Map<String, Object> parameters) {
+        ResponseEntity<?> response;
+        try {
+            if (parameters != null) {
+                response = rest.exchange(path, method, requestEntity, bodyType, parameters);
+            } else {
+                response = rest.exchange(path, method, requestEntity, bodyType);
+            }
+        } catch (HttpStatusCodeException e) {
+            return ResponseEntity.status(e.getStatusCode())
+                    .headers(e.getResponseHeaders())
+                    .body(e.getResponseBodyAsByteArray());
+        }
+        return new ResponseEntity<>(response.getBody(), response.getHeaders(), response.getStatusCode());
+    }
+}
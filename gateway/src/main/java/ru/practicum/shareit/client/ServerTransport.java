@@ -0,0 +1,20 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Способ отправки запроса на сервер. Ответ с любым статусом возвращается вместе с заголовками
+ * сервера. Тело ошибки передаётся массивом байтов, тело успешного ответа — массивом байтов в
+ * режиме passthrough или объектом, разобранным из JSON, если passthrough выключен.
+ */
+public interface ServerTransport {
+
+    <T> Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                              @Nullable Map<String, Object> parameters, @Nullable T body);
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.client;
+
+/**
+ * Создаёт транспорт клиента для адреса ресурса на сервере. Реализация выбирается настройкой
+ * shareit-server.transport: blocking (RestTemplate) или reactive (WebClient).
+ */
+public interface ServerTransportFactory {
+
+    ServerTransport create(String baseUrl);
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Неблокирующий транспорт на Reactor Netty: пока сервер отвечает, поток Tomcat свободен,
+ * а ответ дописывается асинхронно, когда Mono завершится.
+ */
+public class WebClientTransport implements ServerTransport {
+
+    private final WebClient webClient;
+    private final Class<?> bodyType;
+
+    public WebClientTransport(WebClient webClient, Class<?> bodyType) {
+        this.webClient = webClient;
+        this.bodyType = bodyType;
+    }
+
+    @Override
+    public <T> Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                     @Nullable Map<String, Object> parameters, @Nullable T body) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(requestHeaders -> requestHeaders.addAll(headers));
+        WebClient.RequestHeadersSpec<?> requestWithBody = body != null ? request.bodyValue(body) : request;
+        return requestWithBody.exchangeToMono(response -> {
+            Class<?> responseType = response.statusCode().isError() ? byte[].class : bodyType;
+            return response.toEntity(responseType).map(entity -> new ResponseEntity<Object>(entity.getBody(),
+                    entity.getHeaders(), entity.getStatusCode()));
+        });
+    }
+}
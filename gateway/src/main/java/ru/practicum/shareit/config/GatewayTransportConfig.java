@@ -0,0 +1,147 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.client.AdaptiveConcurrencyLimit;
+import ru.practicum.shareit.client.CachingTransport;
+import ru.practicum.shareit.client.CoalescingTransport;
+import ru.practicum.shareit.client.ResilientTransport;
+import ru.practicum.shareit.client.ServerTransport;
+import ru.practicum.shareit.client.ServerTransportFactory;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Надстройки над транспортом к серверу, включаемые настройками shareit-gateway.*. Порядок
+ * от клиента к серверу: кэш ответов, объединение одинаковых одновременных GET, защита ресурса.
+ * На сервер уходят только промахи кэша, по одному на ключ, и каждый занимает одно место
+ * в пределе одновременных запросов ресурса.
+ *
+ * <p>Кэш заводится отдельно для каждого ресурса из shareit-gateway.cache.resources и сбрасывается
+ * изменяющими запросами к нему; размер и срок жизни записей задаются спецификацией Caffeine.
+ *
+ * <p>Защита ресурса — автомат resilience4j и адаптивный предел одновременных запросов с жёсткой
+ * переборкой shareit-gateway.bulkhead.max-concurrent, которую можно переопределить для ресурса
+ * настройкой shareit-gateway.bulkhead.&lt;ресурс&gt;.max-concurrent. Предел начинает с переборки и
+ * снижается, только когда сервер отвечает медленно или с ошибками, поэтому запросы после запуска
+ * шлюза не отклоняются из-за заниженного начального значения.
+ *
+ * <p>Статистика публикуется в метриках cache.*, shareit.gateway.single-flight, shareit.gateway.limit.*
+ * и resilience4j.circuitbreaker.*.
+ */
+@Configuration
+public class GatewayTransportConfig {
+
+    private static final String CACHE_NAME = "gateway-responses";
+    private static final String SINGLE_FLIGHT_METRIC = "shareit.gateway.single-flight";
+    private static final String LIMIT_METRIC = "shareit.gateway.limit";
+
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry(
+            MeterRegistry meterRegistry,
+            @Value("${shareit-gateway.circuit-breaker.failure-rate-threshold}") float failureRateThreshold,
+            @Value("${shareit-gateway.circuit-breaker.slow-call-rate-threshold}") float slowCallRateThreshold,
+            @Value("${shareit-gateway.circuit-breaker.slow-call-threshold}") Duration slowCallThreshold,
+            @Value("${shareit-gateway.circuit-breaker.sliding-window}") int slidingWindow,
+            @Value("${shareit-gateway.circuit-breaker.minimum-calls}") int minimumCalls,
+            @Value("${shareit-gateway.circuit-breaker.wait-in-open}") Duration waitInOpen,
+            @Value("${shareit-gateway.circuit-breaker.half-open-calls}") int halfOpenCalls) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(slowCallRateThreshold)
+                .slowCallDurationThreshold(slowCallThreshold)
+                .slidingWindowSize(slidingWindow)
+                .minimumNumberOfCalls(minimumCalls)
+                .waitDurationInOpenState(waitInOpen)
+                .permittedNumberOfCallsInHalfOpenState(halfOpenCalls)
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .build();
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+
+    @Bean
+    @Primary
+    public ServerTransportFactory gatewayTransportFactory(
+            @Qualifier("serverTransportFactory") ServerTransportFactory serverTransportFactory,
+            MeterRegistry meterRegistry,
+            @Value("${shareit-server.url}") String serverUrl,
+            @Value("${shareit-gateway.single-flight.enabled}") boolean singleFlight,
+            @Value("${shareit-gateway.cache.enabled}") boolean cacheEnabled,
+            @Value("${shareit-gateway.cache.spec}") String spec,
+            @Value("${shareit-gateway.cache.resources}") List<String> resources,
+            @Value("${shareit-gateway.resilience.enabled}") boolean resilience,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            Environment environment) {
+        return baseUrl -> {
+            String resource = baseUrl.substring(serverUrl.length());
+            ServerTransport transport = serverTransportFactory.create(baseUrl);
+            if (resilience) {
+                String name = resource.substring(1);
+                AdaptiveConcurrencyLimit limit = concurrencyLimit(environment, name);
+                Gauge.builder(LIMIT_METRIC, limit, AdaptiveConcurrencyLimit::getLimit)
+                        .description("Текущий предел одновременных запросов к ресурсу")
+                        .tag("resource", resource)
+                        .register(meterRegistry);
+                Gauge.builder(LIMIT_METRIC + ".in-flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                        .description("Запросы к ресурсу, ожидающие ответа сервера")
+                        .tag("resource", resource)
+                        .register(meterRegistry);
+                Counter rejected = Counter.builder(LIMIT_METRIC + ".rejected")
+                        .description("Запросы, отклонённые из-за исчерпания предела")
+                        .tag("resource", resource)
+                        .register(meterRegistry);
+                transport = new ResilientTransport(transport, circuitBreakerRegistry.circuitBreaker(name), limit,
+                        rejected);
+            }
+            if (singleFlight) {
+                transport = new CoalescingTransport(transport,
+                        singleFlightCounter(meterRegistry, resource, "sent"),
+                        singleFlightCounter(meterRegistry, resource, "coalesced"));
+            }
+            if (cacheEnabled && resources.contains(resource)) {
+                Cache<String, ResponseEntity<Object>> cache = Caffeine.from(spec).build();
+                CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME, "resource", resource);
+                transport = new CachingTransport(transport, cache);
+            }
+            return transport;
+        };
+    }
+
+    private static AdaptiveConcurrencyLimit concurrencyLimit(Environment environment, String name) {
+        int maxConcurrent = environment.getProperty("shareit-gateway.bulkhead." + name + ".max-concurrent",
+                Integer.class, environment.getRequiredProperty("shareit-gateway.bulkhead.max-concurrent", Integer.class));
+        Duration latencyThreshold = environment.getRequiredProperty("shareit-gateway.limit.latency-threshold",
+                Duration.class);
+        return new AdaptiveConcurrencyLimit(
+                environment.getProperty("shareit-gateway.limit.initial", Integer.class, maxConcurrent),
+                environment.getRequiredProperty("shareit-gateway.limit.min", Integer.class),
+                maxConcurrent,
+                latencyThreshold.toNanos(),
+                environment.getRequiredProperty("shareit-gateway.limit.backoff", Double.class));
+    }
+
+    private static Counter singleFlightCounter(MeterRegistry meterRegistry, String resource, String result) {
+        return Counter.builder(SINGLE_FLIGHT_METRIC)
+                .description("GET-запросы шлюза: отправленные на сервер и присоединённые к уже выполняющимся")
+                .tag("resource", resource)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.client.RestTemplateTransport;
+import ru.practicum.shareit.client.ServerTransportFactory;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Общий пул соединений шлюза с сервером для блокирующего транспорта. Все клиенты работают
+ * через одну фабрику запросов, поэтому соединения переиспользуются между ними, а лимиты пула
+ * задаются в одном месте. Занятость пула публикуется в метриках httpcomponents.httpclient.pool.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit-server.transport", havingValue = "blocking", matchIfMissing = true)
+public class HttpClientConfig {
+
+    private static final String POOL_NAME = "shareit-server";
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager connectionManager(
+            @Value("${shareit-server.http.max-total}") int maxTotal,
+            @Value("${shareit-server.http.max-per-route}") int maxPerRoute,
+            @Value("${shareit-server.http.validate-after-inactivity}") Duration validateAfterInactivity) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        connectionManager.setValidateAfterInactivity((int) validateAfterInactivity.toMillis());
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient httpClient(
+            PoolingHttpClientConnectionManager connectionManager,
+            @Value("${shareit-server.http.connect-timeout}") Duration connectTimeout,
+            @Value("${shareit-server.http.connection-request-timeout}") Duration connectionRequestTimeout,
+            @Value("${shareit-server.http.read-timeout}") Duration readTimeout,
+            @Value("${shareit-server.http.keep-alive}") Duration keepAlive,
+            @Value("${shareit-server.http.idle-eviction}") Duration idleEviction) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) connectTimeout.toMillis())
+                .setConnectionRequestTimeout((int) connectionRequestTimeout.toMillis())
+                .setSocketTimeout((int) readTimeout.toMillis())
+                .build();
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(keepAliveStrategy(keepAlive.toMillis()))
+                .evictExpiredConnections()
+                .evictIdleConnections(idleEviction.toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @Bean
+    public ClientHttpRequestFactory serverRequestFactory(CloseableHttpClient httpClient) {
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
+    @Bean
+    public ServerTransportFactory serverTransportFactory(RestTemplateBuilder builder,
+                                                         ClientHttpRequestFactory serverRequestFactory,
+                                                         @Value("${shareit-server.passthrough}") boolean passthrough) {
+        Class<?> bodyType = passthrough ? byte[].class : Object.class;
+        return baseUrl -> new RestTemplateTransport(builder
+                .uriTemplateHandler(new DefaultUriBuilderFactory(baseUrl))
+                .requestFactory(() -> serverRequestFactory)
+                .build(), bodyType);
+    }
+
+    @Bean
+    public MeterBinder connectionPoolMetrics(PoolingHttpClientConnectionManager connectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, POOL_NAME);
+    }
+
+    /**
+     * Срок жизни соединения берётся из заголовка Keep-Alive ответа, а если сервер его не прислал —
+     * из настройки, чтобы соединение не держалось в пуле бесконечно.
+     */
+    private static ConnectionKeepAliveStrategy keepAliveStrategy(long keepAliveMillis) {
+        return (response, context) -> {
+            long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAliveMillis) : keepAliveMillis;
+        };
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import ru.practicum.shareit.client.ServerTransportFactory;
+import ru.practicum.shareit.client.WebClientTransport;
+
+import java.time.Duration;
+
+/**
+ * Неблокирующий транспорт шлюза на Reactor Netty. Контроллеры возвращают Mono, поэтому поток
+ * Tomcat освобождается на время ожидания сервера, а число одновременных запросов ограничено
+ * пулом соединений и очередью ожидания соединения, а не числом потоков. Настройки пула те же,
+ * что у блокирующего транспорта; занятость пула публикуется в метриках reactor.netty.connection.provider.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit-server.transport", havingValue = "reactive")
+public class ReactiveHttpClientConfig {
+
+    private static final String POOL_NAME = "shareit-server";
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider connectionProvider(
+            @Value("${shareit-server.http.max-per-route}") int maxConnections,
+            @Value("${shareit-server.http.max-pending}") int maxPending,
+            @Value("${shareit-server.http.connection-request-timeout}") Duration pendingAcquireTimeout,
+            @Value("${shareit-server.http.keep-alive}") Duration keepAlive,
+            @Value("${shareit-server.http.idle-eviction}") Duration idleEviction) {
+        return ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(maxPending)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxLifeTime(keepAlive)
+                .maxIdleTime(idleEviction)
+                .evictInBackground(idleEviction)
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public ServerTransportFactory serverTransportFactory(
+            WebClient.Builder builder,
+            ConnectionProvider connectionProvider,
+            @Value("${shareit-server.http.connect-timeout}") Duration connectTimeout,
+            @Value("${shareit-server.http.read-timeout}") Duration readTimeout,
+            @Value("${shareit-server.passthrough}") boolean passthrough) {
+        Class<?> bodyType = passthrough ? byte[].class : Object.class;
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(readTimeout)
+                .keepAlive(true);
+        ReactorClientHttpConnector connector = new ReactorClientHttpConnector(httpClient);
+        return baseUrl -> new WebClientTransport(builder.clone()
+                .clientConnector(connector)
+                .uriBuilderFactory(new DefaultUriBuilderFactory(baseUrl))
+                .build(), bodyType);
+    }
+}
@@ -2,15 +2,16 @@ package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerTransportFactory;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -19,28 +20,23 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, ServerTransportFactory transports) {
+        super(transports.create(serverUrl + API_PREFIX));
     }
 
-    public ResponseEntity<Object> addItem(ItemDto itemDto, long userId) {
+    public Mono<ResponseEntity<Object>> addItem(ItemDto itemDto, long userId) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> updateItem(ItemDto itemDto, long userId, long itemId) {
+    public Mono<ResponseEntity<Object>> updateItem(ItemDto itemDto, long userId, long itemId) {
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> getItem(long itemId, long userId) {
+    public Mono<ResponseEntity<Object>> getItem(long itemId, long userId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getItems(long userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getItems(long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -48,20 +44,50 @@ public class ItemClient extends BaseClient {
         return get("?&from={from}&size={size}", userId, parameters);
     }
 
-    public void deleteItem(long itemId) {
-        delete("", itemId);
+    public Mono<Void> deleteItem(long itemId) {
+        return delete("", itemId).then();
     }
 
-    public ResponseEntity<Object> searchItem(String text, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> searchItem(String text, Integer from, Integer size, LocalDateTime start,
+                                                   LocalDateTime end) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "text", text,
                 "from", from,
                 "size", size
+        ));
+        String path = "/search?text={text}&from={from}&size={size}";
+        if (start != null) {
+            parameters.put("start", start);
+            path += "&start={start}";
+        }
+        if (end != null) {
+            parameters.put("end", end);
+            path += "&end={end}";
+        }
+        return get(path, null, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
         );
-        return get("/search?text={text}&from={from}&size={size}", null, parameters);
+        return get("/" + itemId + "/availability?from={from}&to={to}", null, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getComments(long itemId, String after, Integer size) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
+                "size", size
+        ));
+        String path = "/" + itemId + "/comments?size={size}";
+        if (after != null) {
+            parameters.put("after", after);
+            path += "&after={after}";
+        }
+        return get(path, null, parameters);
     }
 
-    public ResponseEntity<Object> addComment(CommentDto commentDto,
+    public Mono<ResponseEntity<Object>> addComment(CommentDto commentDto,
                                              long itemId,
                                              long userId) {
         return post("/" + itemId + "/comment", userId, commentDto);
@@ -1,14 +1,17 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import java.time.LocalDateTime;
 
 /**
  * TODO Sprint add-controllers.
@@ -22,45 +25,67 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> addItem(@RequestBody @Valid ItemDto itemDto, @RequestHeader("X-Sharer-User-Id") long userId) {
+    public Mono<ResponseEntity<Object>> addItem(@RequestBody @Valid ItemDto itemDto, @RequestHeader("X-Sharer-User-Id") long userId) {
         return itemClient.addItem(itemDto, userId);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@RequestBody ItemDto itemDto,
-                                             @RequestHeader("X-Sharer-User-Id") long userId,
-                                             @PathVariable long itemId) {
+    public Mono<ResponseEntity<Object>> updateItem(@RequestBody ItemDto itemDto,
+                                                   @RequestHeader("X-Sharer-User-Id") long userId,
+                                                   @PathVariable long itemId) {
         return itemClient.updateItem(itemDto, userId, itemId);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItem(@PathVariable long itemId, @RequestHeader("X-Sharer-User-Id") long userId) {
+    public Mono<ResponseEntity<Object>> getItem(@PathVariable long itemId, @RequestHeader("X-Sharer-User-Id") long userId) {
         return itemClient.getItem(itemId, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getItems(@RequestHeader("X-Sharer-User-Id") long userId,
-                                           @RequestParam(defaultValue = "0") @Min(0) Integer from,
-                                           @RequestParam(defaultValue = "20") @Min(1) Integer size) {
+    public Mono<ResponseEntity<Object>> getItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                 @RequestParam(defaultValue = "0") @Min(0) Integer from,
+                                                 @RequestParam(defaultValue = "20") @Min(1) Integer size) {
         return itemClient.getItems(userId, from, size);
     }
 
     @DeleteMapping("/{itemId}")
-    public void deleteItem(@PathVariable long itemId) {
-        itemClient.deleteItem(itemId);
+    public Mono<Void> deleteItem(@PathVariable long itemId) {
+        return itemClient.deleteItem(itemId);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItem(@RequestParam(required = false) String text,
-                                             @RequestParam(defaultValue = "0") @Min(0) Integer from,
-                                             @RequestParam(defaultValue = "20") @Min(1) Integer size) {
-        return itemClient.searchItem(text, from, size);
+    public Mono<ResponseEntity<Object>> searchItem(@RequestParam(required = false) String text,
+                                                   @RequestParam(defaultValue = "0") @Min(0) Integer from,
+                                                   @RequestParam(defaultValue = "20") @Min(1) Integer size,
+                                                   @RequestParam(required = false)
+                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime start,
+                                                   @RequestParam(required = false)
+                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime end) {
+        return itemClient.searchItem(text, from, size, start, end);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<Object>> getAvailability(@PathVariable long itemId,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                        LocalDateTime from,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                        LocalDateTime to) {
+        return itemClient.getAvailability(itemId, from, to);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public Mono<ResponseEntity<Object>> getComments(@PathVariable long itemId,
+                                                    @RequestParam(required = false) String after,
+                                                    @RequestParam(defaultValue = "20") @Min(1) Integer size) {
+        return itemClient.getComments(itemId, after, size);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@RequestBody @Valid CommentDto commentDto,
-                                             @PathVariable long itemId,
-                                             @RequestHeader("X-Sharer-User-Id") long userId) {
+    public Mono<ResponseEntity<Object>> addComment(@RequestBody @Valid CommentDto commentDto,
+                                                   @PathVariable long itemId,
+                                                   @RequestHeader("X-Sharer-User-Id") long userId) {
         return itemClient.addComment(commentDto, itemId, userId);
     }
 }
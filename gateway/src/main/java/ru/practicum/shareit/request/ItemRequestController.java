@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import javax.validation.Valid;
@@ -21,26 +22,27 @@ public class ItemRequestController {
     private final RequestClient requestClient;
 
     @PostMapping
-    public ResponseEntity<Object> addRequest(@RequestHeader("X-Sharer-User-Id") long userId,
-                                             @RequestBody @Valid ItemRequestDto itemRequestDto) {
+    public Mono<ResponseEntity<Object>> addRequest(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                   @RequestBody @Valid ItemRequestDto itemRequestDto) {
         return requestClient.addRequest(userId, itemRequestDto);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getRequest(@RequestHeader("X-Sharer-User-Id") long userId,
-                                             @PathVariable long requestId) {
+    public Mono<ResponseEntity<Object>> getRequest(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                   @PathVariable long requestId) {
         return requestClient.getRequest(userId, requestId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getOwnRequests(@RequestHeader("X-Sharer-User-Id") long userId) {
+    public Mono<ResponseEntity<Object>> getOwnRequests(@RequestHeader("X-Sharer-User-Id") long userId) {
         return requestClient.getOwnRequests(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllRequests(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                 @RequestParam(defaultValue = "0") @Min(0) Integer from,
-                                                 @RequestParam(defaultValue = "20") @Min(1) Integer size) {
-        return requestClient.getAllRequests(userId, from, size);
+    public Mono<ResponseEntity<Object>> getAllRequests(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                       @RequestParam(defaultValue = "0") @Min(0) Integer from,
+                                                       @RequestParam(defaultValue = "20") @Min(1) Integer size,
+                                                       @RequestParam(required = false) String after) {
+        return requestClient.getAllRequests(userId, from, size, after);
     }
 }
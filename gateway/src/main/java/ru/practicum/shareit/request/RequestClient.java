@@ -2,14 +2,14 @@ package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerTransportFactory;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -18,33 +18,33 @@ public class RequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public RequestClient(@Value("${shareit-server.url}") String serverUrl, ServerTransportFactory transports) {
+        super(transports.create(serverUrl + API_PREFIX));
     }
 
-    public ResponseEntity<Object> addRequest(long userId, ItemRequestDto itemRequestDto) {
+    public Mono<ResponseEntity<Object>> addRequest(long userId, ItemRequestDto itemRequestDto) {
 
         return post("", userId, itemRequestDto);
     }
 
-    public ResponseEntity<Object> getRequest(long userId, long requestId) {
+    public Mono<ResponseEntity<Object>> getRequest(long userId, long requestId) {
         return get("/" + requestId, userId);
     }
 
-    public ResponseEntity<Object> getOwnRequests(long userId) {
+    public Mono<ResponseEntity<Object>> getOwnRequests(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAllRequests(long userId, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> getAllRequests(long userId, Integer from, Integer size, String after) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "from", from,
                 "size", size
-        );
-        return get("/all?&from={from}&size={size}", userId, parameters);
+        ));
+        String path = "/all?&from={from}&size={size}";
+        if (after != null) {
+            parameters.put("after", after);
+            path += "&after={after}";
+        }
+        return get(path, userId, parameters);
     }
 }
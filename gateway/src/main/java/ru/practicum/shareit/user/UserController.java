@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import javax.validation.Valid;
@@ -20,27 +21,27 @@ public class UserController {
     private final UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> addUser(@RequestBody @Valid UserDto userDto) {
+    public Mono<ResponseEntity<Object>> addUser(@RequestBody @Valid UserDto userDto) {
         return userClient.addUser(userDto);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> updateUser(@RequestBody UserDto userDto, @PathVariable long id) {
+    public Mono<ResponseEntity<Object>> updateUser(@RequestBody UserDto userDto, @PathVariable long id) {
         return userClient.updateUser(userDto, id);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getUser(@PathVariable long id) {
+    public Mono<ResponseEntity<Object>> getUser(@PathVariable long id) {
         return userClient.getUser(id);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getUsers() {
+    public Mono<ResponseEntity<Object>> getUsers() {
         return userClient.getUsers();
     }
 
     @DeleteMapping("/{id}")
-    public void deleteUser(@PathVariable long id) {
-        userClient.deleteUser(id);
+    public Mono<Void> deleteUser(@PathVariable long id) {
+        return userClient.deleteUser(id);
     }
 }
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveConcurrencyLimitTest {
+
+    private static final long THRESHOLD = TimeUnit.MILLISECONDS.toNanos(100L);
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10L);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500L);
+
+    private static void acquire(AdaptiveConcurrencyLimit limit, int permits) {
+        for (int i = 0; i < permits; i++) {
+            assertThat(limit.tryAcquire()).isTrue();
+        }
+    }
+
+    @Test
+    public void initialLimitShouldBeKeptWithinBounds() {
+        assertThat(new AdaptiveConcurrencyLimit(100, 2, 10, THRESHOLD, 0.5).getLimit()).isEqualTo(10);
+        assertThat(new AdaptiveConcurrencyLimit(1, 2, 10, THRESHOLD, 0.5).getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    public void requestsOverLimitShouldBeRejectedUntilRelease() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(3, 1, 10, THRESHOLD, 0.5);
+
+        acquire(limit, 3);
+
+        assertThat(limit.tryAcquire()).isFalse();
+        assertThat(limit.getInFlight()).isEqualTo(3);
+        limit.release();
+        assertThat(limit.tryAcquire()).isTrue();
+    }
+
+    @Test
+    public void fastResponsesShouldIncreaseUsedLimitByOne() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 1, 6, THRESHOLD, 0.5);
+        acquire(limit, 3);
+
+        limit.onResponse(FAST, false);
+        assertThat(limit.getLimit()).isEqualTo(5);
+        limit.onResponse(FAST, false);
+        assertThat(limit.getLimit()).isEqualTo(6);
+        limit.onResponse(FAST, false);
+        assertThat(limit.getLimit()).isEqualTo(6);
+    }
+
+    @Test
+    public void fastResponsesShouldNotIncreaseUnderusedLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 20, THRESHOLD, 0.5);
+        acquire(limit, 4);
+
+        limit.onResponse(FAST, false);
+
+        assertThat(limit.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    public void slowOrFailedResponsesShouldDecreaseLimitMultiplicatively() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(16, 3, 16, THRESHOLD, 0.5);
+
+        limit.onResponse(SLOW, false);
+        assertThat(limit.getLimit()).isEqualTo(8);
+        limit.onResponse(FAST, true);
+        assertThat(limit.getLimit()).isEqualTo(4);
+        limit.onResponse(SLOW, true);
+        assertThat(limit.getLimit()).isEqualTo(3);
+    }
+
+    @Test
+    public void limitShouldRecoverAfterDecrease() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(8, 1, 8, THRESHOLD, 0.5);
+        limit.onResponse(SLOW, false);
+        acquire(limit, 4);
+
+        for (int i = 0; i < 4; i++) {
+            limit.onResponse(FAST, false);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(8);
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BaseClientTest {
+
+    private static BaseClient clientRespondingWith(ResponseEntity<Object> response) {
+        return new BaseClient(new ServerTransport() {
+            @Override
+            public <T> Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                             @Nullable Map<String, Object> parameters,
+                                                             @Nullable T body) {
+                return Mono.just(response);
+            }
+        });
+    }
+
+    @Test
+    public void responseShouldKeepServerHeadersExceptHopByHop() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setETag("\"1\"");
+        headers.set("X-Next-Cursor", "2024-01-01T10:00,5");
+        headers.set("Transfer-Encoding", "chunked");
+        headers.set("Connection", "keep-alive, X-Server-Hop");
+        headers.set("Keep-Alive", "timeout=60");
+        headers.set("X-Server-Hop", "1");
+        headers.setContentLength(2L);
+
+        ResponseEntity<Object> response = clientRespondingWith(new ResponseEntity<>("[]", headers, HttpStatus.OK))
+                .get("/bookings", 1L)
+                .block();
+
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo("[]");
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"1\"");
+        assertThat(response.getHeaders().getFirst("X-Next-Cursor")).isEqualTo("2024-01-01T10:00,5");
+        assertThat(response.getHeaders()).doesNotContainKeys("Transfer-Encoding", "Connection", "Keep-Alive",
+                "X-Server-Hop", "Content-Length");
+    }
+
+    @Test
+    public void errorResponseShouldKeepStatusAndBody() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("Transfer-Encoding", "chunked");
+        byte[] body = "{\"error\":\"not found\"}".getBytes();
+
+        ResponseEntity<Object> response = clientRespondingWith(new ResponseEntity<>(body, headers,
+                HttpStatus.NOT_FOUND))
+                .get("/bookings/1", 1L)
+                .block();
+
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getBody()).isSameAs(body);
+        assertThat(response.getHeaders()).doesNotContainKey("Transfer-Encoding");
+    }
+}
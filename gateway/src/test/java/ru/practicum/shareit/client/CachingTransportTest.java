@@ -0,0 +1,148 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.item.ItemController;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.client.StubTransport.ok;
+import static ru.practicum.shareit.client.StubTransport.userHeaders;
+
+public class CachingTransportTest {
+
+    private StubTransport server;
+    private Cache<String, ResponseEntity<Object>> cache;
+    private CachingTransport transport;
+
+    @BeforeEach
+    public void setup() {
+        server = new StubTransport(() -> Mono.just(ok("{\"id\":1}")));
+        cache = Caffeine.newBuilder().build();
+        transport = new CachingTransport(server, cache);
+    }
+
+    private ResponseEntity<Object> getItem(long userId) {
+        return transport.exchange(HttpMethod.GET, "/1", userHeaders(userId), Map.of("from", 0), null).block();
+    }
+
+    @Test
+    public void repeatedGetShouldBeServedFromCache() {
+        ResponseEntity<Object> first = getItem(1L);
+        ResponseEntity<Object> second = getItem(1L);
+
+        assertThat(server.getSubscriptions()).isEqualTo(1);
+        assertThat(first.getHeaders().getETag()).isNotNull();
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    public void getsOfDifferentUsersShouldBeCachedSeparately() {
+        getItem(1L);
+        getItem(2L);
+
+        assertThat(server.getSubscriptions()).isEqualTo(2);
+        assertThat(cache.estimatedSize()).isEqualTo(2);
+    }
+
+    @Test
+    public void eTagShouldDependOnBody() {
+        String firstETag = getItem(1L).getHeaders().getETag();
+        server.respondWith(() -> Mono.just(ok("{\"id\":2}")));
+
+        assertThat(getItem(2L).getHeaders().getETag())
+                .isNotNull()
+                .isNotEqualTo(firstETag);
+    }
+
+    @Test
+    public void parsedBodyShouldNotGetETagAndShouldNotBeCached() {
+        server.respondWith(() -> Mono.just(ResponseEntity.ok(Map.of("id", 1))));
+
+        assertThat(getItem(1L).getHeaders().getETag()).isNull();
+        getItem(1L);
+
+        assertThat(server.getSubscriptions()).isEqualTo(2);
+        assertThat(cache.estimatedSize()).isZero();
+    }
+
+    @Test
+    public void errorResponseShouldNotBeCached() {
+        server.respondWith(() -> Mono.just(new ResponseEntity<>(new byte[0], HttpStatus.NOT_FOUND)));
+
+        getItem(1L);
+        getItem(1L);
+
+        assertThat(server.getSubscriptions()).isEqualTo(2);
+    }
+
+    @Test
+    public void mutationShouldClearCache() {
+        getItem(1L);
+        getItem(2L);
+
+        transport.exchange(HttpMethod.PATCH, "/1", userHeaders(1L), null, "{}").block();
+        getItem(1L);
+
+        assertThat(server.getSubscriptions()).isEqualTo(4);
+        assertThat(cache.estimatedSize()).isEqualTo(1);
+    }
+
+    @Test
+    public void getStartedBeforeMutationShouldNotRepopulateCache() {
+        Sinks.One<ResponseEntity<Object>> slowResponse = Sinks.one();
+        server.respondWith(slowResponse::asMono);
+        Mono<ResponseEntity<Object>> inFlight = transport.exchange(HttpMethod.GET, "/1", userHeaders(1L), null, null)
+                .cache();
+        inFlight.subscribe();
+
+        server.respondWith(() -> Mono.just(ok("{\"id\":1,\"name\":\"new\"}")));
+        transport.exchange(HttpMethod.PATCH, "/1", userHeaders(1L), null, "{}").block();
+        slowResponse.tryEmitValue(ok("{\"id\":1,\"name\":\"old\"}"));
+
+        assertThat(inFlight.block()).isNotNull();
+        assertThat(cache.estimatedSize()).isZero();
+        assertThat(new String((byte[]) transport.exchange(HttpMethod.GET, "/1", userHeaders(1L), null, null)
+                .block().getBody())).contains("new");
+    }
+
+    @Test
+    public void getWithMatchingIfNoneMatchShouldReceiveNotModified() throws Exception {
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(new ItemController(new ItemClient("http://localhost:9090",
+                baseUrl -> transport))).build();
+        MvcResult first = mvc.perform(get("/items/1").header("X-Sharer-User-Id", 1L)).andReturn();
+        String eTag = mvc.perform(asyncDispatch(first))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).isNotNull();
+
+        MvcResult second = mvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andReturn();
+        mvc.perform(asyncDispatch(second))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+
+        assertThat(server.getSubscriptions()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,153 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static ru.practicum.shareit.client.StubTransport.ok;
+import static ru.practicum.shareit.client.StubTransport.userHeaders;
+
+public class CoalescingTransportTest {
+
+    private static final int THREADS_COUNT = 16;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Counter sent = meterRegistry.counter("sent");
+    private final Counter coalesced = meterRegistry.counter("coalesced");
+    private Sinks.One<ResponseEntity<Object>> response;
+    private StubTransport server;
+    private CoalescingTransport transport;
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setup() {
+        response = Sinks.one();
+        server = new StubTransport(() -> response.asMono());
+        transport = new CoalescingTransport(server, sent, coalesced);
+        executor = Executors.newFixedThreadPool(THREADS_COUNT);
+    }
+
+    @AfterEach
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Mono<ResponseEntity<Object>> getItem(long userId) {
+        return transport.exchange(HttpMethod.GET, "/1", userHeaders(userId), null, null);
+    }
+
+    /**
+     * Отправляет запросы одновременно из разных потоков и дожидается, пока все они будут
+     * отправлены на сервер или присоединены к уже отправленному.
+     */
+    private List<Future<ResponseEntity<Object>>> getConcurrently(List<Long> userIds) throws Exception {
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<ResponseEntity<Object>>> results = new ArrayList<>();
+        for (long userId : userIds) {
+            results.add(executor.submit(() -> {
+                startSignal.await();
+                return getItem(userId).block(Duration.ofSeconds(10L));
+            }));
+        }
+        startSignal.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10L);
+        while (sent.count() + coalesced.count() < userIds.size() && System.nanoTime() < deadline) {
+            Thread.sleep(5L);
+        }
+        return results;
+    }
+
+    @Test
+    public void simultaneousIdenticalGetsShouldShareOneServerRequest() throws Exception {
+        List<Long> userIds = new ArrayList<>();
+        for (int i = 0; i < THREADS_COUNT; i++) {
+            userIds.add(1L);
+        }
+        List<Future<ResponseEntity<Object>>> results = getConcurrently(userIds);
+        ResponseEntity<Object> body = ok("{\"id\":1}");
+        response.tryEmitValue(body);
+
+        for (Future<ResponseEntity<Object>> result : results) {
+            assertThat(result.get(10L, TimeUnit.SECONDS)).isSameAs(body);
+        }
+        assertThat(server.getSubscriptions()).isEqualTo(1);
+        assertThat(sent.count()).isEqualTo(1.0);
+        assertThat(coalesced.count()).isEqualTo(THREADS_COUNT - 1.0);
+
+        server.respondWith(() -> Mono.just(ok("{\"id\":1}")));
+        getItem(1L).block();
+        assertThat(server.getSubscriptions()).isEqualTo(2);
+    }
+
+    @Test
+    public void getsOfDifferentUsersShouldNotBeCoalesced() throws Exception {
+        List<Future<ResponseEntity<Object>>> results = getConcurrently(List.of(1L, 2L, 1L, 2L));
+        response.tryEmitValue(ok("{\"id\":1}"));
+
+        for (Future<ResponseEntity<Object>> result : results) {
+            assertThat(result.get(10L, TimeUnit.SECONDS)).isNotNull();
+        }
+        assertThat(server.getSubscriptions()).isEqualTo(2);
+        assertThat(sent.count()).isEqualTo(2.0);
+        assertThat(coalesced.count()).isEqualTo(2.0);
+    }
+
+    @Test
+    public void errorShouldReachAllWaitingGetsAndReleaseKey() throws Exception {
+        List<Future<ResponseEntity<Object>>> results = getConcurrently(List.of(1L, 1L, 1L));
+        response.tryEmitError(new IllegalStateException("server is down"));
+
+        for (Future<ResponseEntity<Object>> result : results) {
+            assertThrows(Exception.class, () -> result.get(10L, TimeUnit.SECONDS));
+        }
+        assertThat(server.getSubscriptions()).isEqualTo(1);
+
+        server.respondWith(() -> Mono.just(ok("{\"id\":1}")));
+        assertThat(getItem(1L).block()).isNotNull();
+        assertThat(server.getSubscriptions()).isEqualTo(2);
+    }
+
+    @Test
+    public void cancelOfAllWaitingGetsShouldCancelServerRequestAndReleaseKey() {
+        Disposable first = getItem(1L).subscribe();
+        Disposable second = getItem(1L).subscribe();
+        first.dispose();
+        second.dispose();
+
+        server.respondWith(() -> Mono.just(ok("{\"id\":1}")));
+        assertThat(getItem(1L).block(Duration.ofSeconds(10L))).isNotNull();
+        assertThat(server.getSubscriptions()).isEqualTo(2);
+        assertThat(response.currentSubscriberCount()).isZero();
+    }
+
+    @Test
+    public void cancelOfOneWaitingGetShouldNotAffectOthers() {
+        Disposable cancelled = getItem(1L).subscribe();
+        Mono<ResponseEntity<Object>> waiting = getItem(1L).cache();
+        waiting.subscribe();
+        cancelled.dispose();
+        ResponseEntity<Object> body = ok("{\"id\":1}");
+        response.tryEmitValue(body);
+
+        assertThat(waiting.block(Duration.ofSeconds(10L))).isSameAs(body);
+        assertThat(server.getSubscriptions()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,134 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.practicum.shareit.client.StubTransport.ok;
+import static ru.practicum.shareit.client.StubTransport.userHeaders;
+
+public class ResilientTransportTest {
+
+    private static final Duration WAIT_IN_OPEN = Duration.ofMillis(100L);
+
+    private final Counter rejected = new SimpleMeterRegistry().counter("rejected");
+    private StubTransport server;
+    private CircuitBreaker circuitBreaker;
+    private AdaptiveConcurrencyLimit limit;
+    private ResilientTransport transport;
+
+    @BeforeEach
+    public void setup() {
+        server = new StubTransport(() -> Mono.just(ok("{}")));
+        circuitBreaker = CircuitBreaker.of("items", CircuitBreakerConfig.custom()
+                .failureRateThreshold(50)
+                .slowCallRateThreshold(50)
+                .slowCallDurationThreshold(Duration.ofMillis(50L))
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .waitDurationInOpenState(WAIT_IN_OPEN)
+                .permittedNumberOfCallsInHalfOpenState(2)
+                .build());
+        limit = new AdaptiveConcurrencyLimit(2, 1, 2, TimeUnit.SECONDS.toNanos(1L), 0.5);
+        transport = new ResilientTransport(server, circuitBreaker, limit, rejected);
+    }
+
+    private HttpStatus getItem() {
+        return transport.exchange(HttpMethod.GET, "/1", userHeaders(1L), null, null).block().getStatusCode();
+    }
+
+    private void respondWith(HttpStatus status) {
+        server.respondWith(() -> Mono.just(new ResponseEntity<>(new byte[0], status)));
+    }
+
+    private void openByFailures() {
+        respondWith(HttpStatus.INTERNAL_SERVER_ERROR);
+        for (int i = 0; i < 4; i++) {
+            assertThat(getItem()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    public void serverErrorsShouldOpenBreakerAndShortCircuitRequests() {
+        openByFailures();
+
+        assertThat(getItem()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(server.getSubscriptions()).isEqualTo(4);
+        assertThat(circuitBreaker.getMetrics().getNumberOfNotPermittedCalls()).isEqualTo(1);
+    }
+
+    @Test
+    public void clientErrorsShouldNotOpenBreaker() {
+        respondWith(HttpStatus.NOT_FOUND);
+        for (int i = 0; i < 4; i++) {
+            assertThat(getItem()).isEqualTo(HttpStatus.NOT_FOUND);
+        }
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    public void slowResponsesShouldOpenBreaker() {
+        server.respondWith(() -> Mono.just(ok("{}")).delayElement(Duration.ofMillis(60L)));
+        for (int i = 0; i < 4; i++) {
+            assertThat(getItem()).isEqualTo(HttpStatus.OK);
+        }
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    public void successfulTrialCallsShouldCloseBreakerAfterWait() throws InterruptedException {
+        openByFailures();
+        Thread.sleep(WAIT_IN_OPEN.toMillis() * 2);
+        respondWith(HttpStatus.OK);
+
+        assertThat(getItem()).isEqualTo(HttpStatus.OK);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(getItem()).isEqualTo(HttpStatus.OK);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    public void failedTrialCallsShouldReopenBreaker() throws InterruptedException {
+        openByFailures();
+        Thread.sleep(WAIT_IN_OPEN.toMillis() * 2);
+
+        assertThat(getItem()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        assertThat(getItem()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(getItem()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    public void requestsOverLimitShouldBeRejectedWithoutReachingServer() {
+        Sinks.One<ResponseEntity<Object>> pending = Sinks.one();
+        server.respondWith(pending::asMono);
+        transport.exchange(HttpMethod.GET, "/1", userHeaders(1L), null, null).subscribe();
+        transport.exchange(HttpMethod.GET, "/2", userHeaders(1L), null, null).subscribe();
+
+        assertThat(getItem()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(rejected.count()).isEqualTo(1.0);
+        assertThat(server.getSubscriptions()).isEqualTo(2);
+
+        pending.tryEmitValue(ok("{}"));
+        assertThat(limit.getInFlight()).isZero();
+        server.respondWith(() -> Mono.just(ok("{}")));
+        assertThat(getItem()).isEqualTo(HttpStatus.OK);
+        assertThat(circuitBreaker.getMetrics().getNumberOfBufferedCalls()).isEqualTo(3);
+    }
+}
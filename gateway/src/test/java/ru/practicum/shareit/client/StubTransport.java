@@ -0,0 +1,57 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Транспорт-заглушка для тестов надстроек: на каждый запрос отвечает Mono от поставщика
+ * и считает запросы, дошедшие до сервера, то есть подписки на ответ.
+ */
+class StubTransport implements ServerTransport {
+
+    private final AtomicInteger subscriptions = new AtomicInteger();
+    private volatile Supplier<Mono<ResponseEntity<Object>>> responses;
+
+    StubTransport(Supplier<Mono<ResponseEntity<Object>>> responses) {
+        this.responses = responses;
+    }
+
+    static ResponseEntity<Object> ok(String json) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return new ResponseEntity<>(json.getBytes(StandardCharsets.UTF_8), headers, HttpStatus.OK);
+    }
+
+    static HttpHeaders userHeaders(long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        return headers;
+    }
+
+    void respondWith(Supplier<Mono<ResponseEntity<Object>>> responses) {
+        this.responses = responses;
+    }
+
+    int getSubscriptions() {
+        return subscriptions.get();
+    }
+
+    @Override
+    public <T> Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                     @Nullable Map<String, Object> parameters, @Nullable T body) {
+        return Mono.defer(() -> {
+            subscriptions.incrementAndGet();
+            return responses.get();
+        });
+    }
+}
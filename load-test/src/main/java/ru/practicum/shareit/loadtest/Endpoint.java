@@ -0,0 +1,67 @@
+package ru.practicum.shareit.loadtest;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Читающие эндпоинты шлюза, из которых складывается смесь запросов. Каждый строит
+ * путь со случайными, но существующими после заполнения базы параметрами.
+ */
+public enum Endpoint {
+
+    ITEMS("items") {
+        @Override
+        String path(SeededData data, Random random) {
+            return "/items?from=0&size=20";
+        }
+    },
+    SEARCH("search") {
+        @Override
+        String path(SeededData data, Random random) {
+            String text = data.searchWords[random.nextInt(data.searchWords.length)];
+            return "/items/search?text=" + URLEncoder.encode(text, StandardCharsets.UTF_8) + "&from=0&size=20";
+        }
+    },
+    BOOKINGS("bookings") {
+        @Override
+        String path(SeededData data, Random random) {
+            return "/bookings?state=" + randomState(random) + "&from=0&size=20";
+        }
+    },
+    OWNER("owner") {
+        @Override
+        String path(SeededData data, Random random) {
+            return "/bookings/owner?state=" + randomState(random) + "&from=0&size=20";
+        }
+    },
+    REQUESTS("requests") {
+        @Override
+        String path(SeededData data, Random random) {
+            return "/requests/all?from=" + random.nextInt(3) * 20 + "&size=20";
+        }
+    };
+
+    private static final String[] STATES = {"ALL", "ALL", "FUTURE", "WAITING", "CURRENT", "PAST"};
+
+    final String title;
+
+    Endpoint(String title) {
+        this.title = title;
+    }
+
+    abstract String path(SeededData data, Random random);
+
+    public static Endpoint byName(String name) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.title.equalsIgnoreCase(name)) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Неизвестный эндпоинт: " + name);
+    }
+
+    private static String randomState(Random random) {
+        return STATES[random.nextInt(STATES.length)];
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Итоги прогона по каждому эндпоинту и по всей смеси: пропускная способность, ошибки и
+ * процентили задержки. Задержки записаны в микросекундах, в отчёте выводятся в миллисекундах.
+ */
+public class LatencyReport {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+    private static final String TOTAL = "total";
+
+    private final Map<Endpoint, Histogram> histograms;
+    private final Map<Endpoint, Long> errors;
+    private final double seconds;
+
+    LatencyReport(Map<Endpoint, Histogram> histograms, Map<Endpoint, Long> errors, long elapsedNanos) {
+        this.histograms = histograms;
+        this.errors = errors;
+        this.seconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    public void print(PrintStream out) {
+        out.println(String.format(Locale.ROOT, "%-10s %10s %10s %8s %9s %9s %9s %9s",
+                "endpoint", "requests", "req/s", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        Histogram total = null;
+        long totalErrors = 0;
+        for (Map.Entry<Endpoint, Histogram> entry : histograms.entrySet()) {
+            long endpointErrors = errors.get(entry.getKey());
+            out.println(line(entry.getKey().title, entry.getValue(), endpointErrors));
+            if (total == null) {
+                total = entry.getValue().copy();
+            } else {
+                total.add(entry.getValue());
+            }
+            totalErrors += endpointErrors;
+        }
+        if (total != null) {
+            out.println(line(TOTAL, total, totalErrors));
+        }
+    }
+
+    public void write(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        try (PrintStream summary = new PrintStream(Files.newOutputStream(dir.resolve("summary.txt")), true,
+                StandardCharsets.UTF_8)) {
+            print(summary);
+        }
+        for (Map.Entry<Endpoint, Histogram> entry : histograms.entrySet()) {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve(entry.getKey().title + ".hgrm")),
+                    true, StandardCharsets.UTF_8)) {
+                entry.getValue().outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+    }
+
+    private String line(String title, Histogram histogram, long errorCount) {
+        return String.format(Locale.ROOT, "%-10s %10d %10.1f %8d %9.2f %9.2f %9.2f %9.2f",
+                title, histogram.getTotalCount(), histogram.getTotalCount() / seconds, errorCount,
+                millis(histogram, 50.0), millis(histogram, 99.0), millis(histogram, 99.9),
+                histogram.getMaxValue() / MICROS_PER_MILLI);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+}
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Гоняет смесь запросов через шлюз заданным числом потоков. Без заданной частоты потоки
+ * работают по замкнутому циклу: следующий запрос уходит сразу после ответа на предыдущий.
+ * С частотой каждый поток отправляет запросы по расписанию, а задержка отсчитывается от
+ * запланированного момента отправки, так что задержки сервера не прячутся за паузой клиента.
+ */
+public class LoadGenerator {
+
+    private static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+    private final URI gateway;
+    private final SeededData data;
+    private final LoadTestOptions options;
+    private final Endpoint[] weighted;
+    private final Map<Endpoint, Recorder> recorders = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, LongAdder> errors = new EnumMap<>(Endpoint.class);
+    private volatile boolean running = true;
+
+    public LoadGenerator(HttpClient client, URI gateway, SeededData data, LoadTestOptions options) {
+        this.client = client;
+        this.gateway = gateway;
+        this.data = data;
+        this.options = options;
+        List<Endpoint> weights = new ArrayList<>();
+        for (Map.Entry<Endpoint, Integer> share : options.mix.entrySet()) {
+            recorders.put(share.getKey(), new Recorder(HIGHEST_LATENCY_MICROS, 3));
+            errors.put(share.getKey(), new LongAdder());
+            for (int weight = 0; weight < share.getValue(); weight++) {
+                weights.add(share.getKey());
+            }
+        }
+        weighted = weights.toArray(new Endpoint[0]);
+    }
+
+    public LatencyReport run() throws InterruptedException {
+        List<Thread> workers = new ArrayList<>();
+        long intervalNanos = options.rate > 0 ? TimeUnit.SECONDS.toNanos(options.concurrency) / options.rate : 0;
+        for (int worker = 0; worker < options.concurrency; worker++) {
+            Thread thread = new Thread(() -> work(intervalNanos), "load-" + worker);
+            thread.setDaemon(true);
+            workers.add(thread);
+            thread.start();
+        }
+        TimeUnit.SECONDS.sleep(options.warmupSeconds);
+        for (Endpoint endpoint : recorders.keySet()) {
+            recorders.get(endpoint).reset();
+            errors.get(endpoint).reset();
+        }
+        long started = System.nanoTime();
+        TimeUnit.SECONDS.sleep(options.durationSeconds);
+        running = false;
+        long elapsed = System.nanoTime() - started;
+        for (Thread worker : workers) {
+            worker.join(REQUEST_TIMEOUT.toMillis());
+        }
+        Map<Endpoint, Histogram> histograms = new EnumMap<>(Endpoint.class);
+        Map<Endpoint, Long> errorCounts = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : recorders.keySet()) {
+            histograms.put(endpoint, recorders.get(endpoint).getIntervalHistogram());
+            errorCounts.put(endpoint, errors.get(endpoint).sum());
+        }
+        return new LatencyReport(histograms, errorCounts, elapsed);
+    }
+
+    private void work(long intervalNanos) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long next = System.nanoTime() + (intervalNanos > 0 ? random.nextLong(intervalNanos) : 0);
+        while (running) {
+            long intended = System.nanoTime();
+            if (intervalNanos > 0) {
+                intended = next;
+                next += intervalNanos;
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+            Endpoint endpoint = weighted[random.nextInt(weighted.length)];
+            long userId = data.userIds[random.nextInt(data.userIds.length)];
+            HttpRequest request = HttpRequest.newBuilder(gateway.resolve(endpoint.path(data, random)))
+                    .header("X-Sharer-User-Id", String.valueOf(userId))
+                    .timeout(REQUEST_TIMEOUT)
+                    .GET()
+                    .build();
+            try {
+                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended);
+                recorders.get(endpoint).recordValue(Math.min(Math.max(micros, 1), HIGHEST_LATENCY_MICROS));
+                if (status / 100 != 2) {
+                    errors.get(endpoint).increment();
+                }
+            } catch (IOException e) {
+                errors.get(endpoint).increment();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Нагрузочный прогон пути шлюз → сервер. Поднимает оба приложения на H2 (или использует
+ * уже запущенный шлюз из параметра gatewayUrl), заполняет базу через API, прогревает и
+ * измеряет смесь читающих запросов. Итоги печатаются и сохраняются в reportDir вместе с
+ * распределениями задержек в формате HdrHistogram (.hgrm).
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        try (ShareItApps apps = new ShareItApps(client)) {
+            URI gateway = options.gatewayUrl != null ? URI.create(options.gatewayUrl) : apps.start(options);
+            System.out.println("Заполнение базы через " + gateway);
+            SeededData data = new WorkloadSeeder(client, gateway).seed(options);
+            System.out.println("Прогон: " + options);
+            LatencyReport report = new LoadGenerator(client, gateway, data, options).run();
+            report.print(System.out);
+            report.write(options.reportDir);
+            System.out.println("Отчёты сохранены в " + options.reportDir.toAbsolutePath());
+        }
+    }
+}
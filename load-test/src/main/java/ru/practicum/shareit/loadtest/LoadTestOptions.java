@@ -0,0 +1,135 @@
+package ru.practicum.shareit.loadtest;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Параметры прогона в виде {@code ключ=значение} из аргументов командной строки.
+ * Неизвестный ключ считается опечаткой и останавливает запуск. Ключи с префиксом
+ * {@code server:} и {@code gateway:} передаются настройками соответствующему приложению.
+ */
+public class LoadTestOptions {
+
+    private static final String SERVER_PREFIX = "server:";
+    private static final String GATEWAY_PREFIX = "gateway:";
+    private static final String DEFAULT_MIX = "items=30,search=25,bookings=20,owner=15,requests=10";
+
+    int concurrency = 16;
+    int warmupSeconds = 10;
+    int durationSeconds = 30;
+    int rate;
+    int users = 50;
+    int itemsPerUser = 5;
+    int bookingsPerItem = 3;
+    int requestsPerUser = 1;
+    Map<Endpoint, Integer> mix = parseMix(DEFAULT_MIX);
+    Path serverJar = Path.of("load-test/target/apps/shareit-server-exec.jar");
+    Path gatewayJar = Path.of("load-test/target/apps/shareit-gateway.jar");
+    Path reportDir = Path.of("load-test/target/reports");
+    String gatewayUrl;
+    List<String> serverArgs = new ArrayList<>();
+    List<String> gatewayArgs = new ArrayList<>();
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Параметр должен иметь вид ключ=значение: " + arg);
+            }
+            values.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        LoadTestOptions options = new LoadTestOptions();
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            options.set(entry.getKey(), entry.getValue());
+        }
+        if (options.concurrency < 1 || options.durationSeconds < 1 || options.users < 2 || options.itemsPerUser < 1) {
+            throw new IllegalArgumentException("Нужны concurrency >= 1, duration >= 1, users >= 2 и itemsPerUser >= 1");
+        }
+        return options;
+    }
+
+    private void set(String key, String value) {
+        if (key.startsWith(SERVER_PREFIX)) {
+            serverArgs.add("--" + key.substring(SERVER_PREFIX.length()) + "=" + value);
+            return;
+        }
+        if (key.startsWith(GATEWAY_PREFIX)) {
+            gatewayArgs.add("--" + key.substring(GATEWAY_PREFIX.length()) + "=" + value);
+            return;
+        }
+        switch (key) {
+            case "concurrency":
+                concurrency = Integer.parseInt(value);
+                break;
+            case "warmup":
+                warmupSeconds = Integer.parseInt(value);
+                break;
+            case "duration":
+                durationSeconds = Integer.parseInt(value);
+                break;
+            case "rate":
+                rate = Integer.parseInt(value);
+                break;
+            case "users":
+                users = Integer.parseInt(value);
+                break;
+            case "itemsPerUser":
+                itemsPerUser = Integer.parseInt(value);
+                break;
+            case "bookingsPerItem":
+                bookingsPerItem = Integer.parseInt(value);
+                break;
+            case "requestsPerUser":
+                requestsPerUser = Integer.parseInt(value);
+                break;
+            case "mix":
+                mix = parseMix(value);
+                break;
+            case "serverJar":
+                serverJar = Path.of(value);
+                break;
+            case "gatewayJar":
+                gatewayJar = Path.of(value);
+                break;
+            case "reportDir":
+                reportDir = Path.of(value);
+                break;
+            case "gatewayUrl":
+                gatewayUrl = value;
+                break;
+            default:
+                throw new IllegalArgumentException("Неизвестный параметр: " + key);
+        }
+    }
+
+    private static Map<Endpoint, Integer> parseMix(String value) {
+        Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+        for (String part : value.split(",")) {
+            String[] weight = part.trim().split("=");
+            if (weight.length != 2) {
+                throw new IllegalArgumentException("Доля эндпоинта должна иметь вид имя=вес: " + part);
+            }
+            int share = Integer.parseInt(weight[1]);
+            if (share > 0) {
+                mix.put(Endpoint.byName(weight[0]), share);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("В смеси запросов нет ни одного эндпоинта");
+        }
+        return mix;
+    }
+
+    @Override
+    public String toString() {
+        return "concurrency=" + concurrency + ", warmup=" + warmupSeconds + "s, duration=" + durationSeconds +
+                "s, rate=" + (rate > 0 ? rate + "/s" : "closed loop") + ", users=" + users + ", itemsPerUser=" +
+                itemsPerUser + ", bookingsPerItem=" + bookingsPerItem + ", requestsPerUser=" + requestsPerUser +
+                ", mix=" + mix + ", server=" + serverArgs + ", gateway=" + gatewayArgs;
+    }
+}
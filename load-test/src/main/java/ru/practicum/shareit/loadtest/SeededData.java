@@ -0,0 +1,15 @@
+package ru.practicum.shareit.loadtest;
+
+/**
+ * Данные, созданные при заполнении базы: на них опираются пути запросов нагрузки.
+ */
+public class SeededData {
+
+    final long[] userIds;
+    final String[] searchWords;
+
+    SeededData(long[] userIds, String[] searchWords) {
+        this.userIds = userIds;
+        this.searchWords = searchWords;
+    }
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Запускает сервер на H2 в памяти и шлюз перед ним отдельными процессами из исполняемых jar.
+ * У приложений совпадают имена классов, поэтому в одной JVM их не поднять; отдельные процессы
+ * к тому же ближе к боевой схеме. Вывод приложений пишется в журналы рядом с отчётами.
+ */
+public class ShareItApps implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private final HttpClient client;
+    private final List<Process> processes = new ArrayList<>();
+
+    public ShareItApps(HttpClient client) {
+        this.client = client;
+    }
+
+    public URI start(LoadTestOptions options) throws IOException, InterruptedException {
+        Files.createDirectories(options.reportDir);
+        int serverPort = freePort();
+        int gatewayPort = freePort();
+        URI server = URI.create("http://localhost:" + serverPort);
+        launch(options.serverJar, options.reportDir.resolve("server.log"), server, options.serverArgs,
+                "--server.port=" + serverPort,
+                "--spring.datasource.driverClassName=org.h2.Driver",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=loadtest",
+                "--spring.datasource.password=loadtest",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.orm.jpa=WARN",
+                "--logging.level.org.springframework.transaction=WARN",
+                "--logging.level.org.springframework.transaction.interceptor=WARN",
+                "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+        URI gateway = URI.create("http://localhost:" + gatewayPort);
+        launch(options.gatewayJar, options.reportDir.resolve("gateway.log"), gateway, options.gatewayArgs,
+                "--server.port=" + gatewayPort,
+                "--shareit-server.url=" + server,
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.web.client.RestTemplate=WARN");
+        return gateway;
+    }
+
+    private void launch(Path jar, Path log, URI base, List<String> extraArgs, String... args)
+            throws IOException, InterruptedException {
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException("Не найден jar приложения " + jar.toAbsolutePath() +
+                    ", соберите его: mvn -Pload-test -pl load-test -am package -DskipTests");
+        }
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-jar");
+        command.add(jar.toString());
+        command.addAll(List.of(args));
+        command.addAll(extraArgs);
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        processes.add(process);
+        awaitHealthy(process, base.resolve("/actuator/health"), log);
+    }
+
+    private void awaitHealthy(Process process, URI health, Path log) throws InterruptedException {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        HttpRequest request = HttpRequest.newBuilder(health).timeout(Duration.ofSeconds(1)).build();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Приложение завершилось при запуске, см. " + log.toAbsolutePath());
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // приложение ещё не слушает порт
+            }
+            TimeUnit.MILLISECONDS.sleep(250);
+        }
+        throw new IllegalStateException("Приложение не поднялось за " + STARTUP_TIMEOUT.toSeconds() + " с, см. " +
+                log.toAbsolutePath());
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        for (int index = processes.size() - 1; index >= 0; index--) {
+            Process process = processes.get(index);
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+}
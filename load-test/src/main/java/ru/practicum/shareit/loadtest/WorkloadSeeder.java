@@ -0,0 +1,90 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+/**
+ * Заполняет пустую базу через API шлюза, тем же путём, что и настоящие клиенты: пользователи,
+ * их вещи, запросы и будущие бронирования чужих вещей. Половина бронирований подтверждается
+ * владельцем, поэтому выборки по состояниям WAITING и ALL не пусты.
+ */
+public class WorkloadSeeder {
+
+    static final String[] NAMES = {"Дрель", "Отвёртка", "Стол", "Пила", "Лестница", "Палатка", "Велосипед",
+            "Перфоратор"};
+
+    private final HttpClient client;
+    private final URI gateway;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    public WorkloadSeeder(HttpClient client, URI gateway) {
+        this.client = client;
+        this.gateway = gateway;
+    }
+
+    public SeededData seed(LoadTestOptions options) throws IOException, InterruptedException {
+        long[] userIds = new long[options.users];
+        for (int user = 0; user < options.users; user++) {
+            userIds[user] = post("/users", null, Map.of("name", "user" + user,
+                    "email", "user" + user + "-" + System.nanoTime() + "@shareit.ru"));
+        }
+        for (long userId : userIds) {
+            for (int request = 0; request < options.requestsPerUser; request++) {
+                post("/requests", userId, Map.of("description", "Нужна вещь " + NAMES[request % NAMES.length]));
+            }
+        }
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+        int item = 0;
+        for (int owner = 0; owner < userIds.length; owner++) {
+            for (int index = 0; index < options.itemsPerUser; index++, item++) {
+                String name = NAMES[item % NAMES.length];
+                long itemId = post("/items", userIds[owner], Map.of("name", name + " " + item,
+                        "description", "Описание: " + name.toLowerCase() + " в хорошем состоянии", "available", true));
+                for (int booking = 0; booking < options.bookingsPerItem; booking++) {
+                    long booker = userIds[(owner + 1 + booking % (userIds.length - 1)) % userIds.length];
+                    LocalDateTime from = start.plusDays(booking);
+                    long bookingId = post("/bookings", booker, Map.of("itemId", itemId,
+                            "start", from.toString(), "end", from.plusHours(23).toString()));
+                    if (booking % 2 == 0) {
+                        send(HttpRequest.newBuilder(gateway.resolve("/bookings/" + bookingId + "?approved=true"))
+                                .method("PATCH", HttpRequest.BodyPublishers.noBody()), userIds[owner]);
+                    }
+                }
+            }
+        }
+        String[] searchWords = new String[NAMES.length + 1];
+        for (int word = 0; word < NAMES.length; word++) {
+            searchWords[word] = NAMES[word].toLowerCase();
+        }
+        searchWords[NAMES.length] = "хорошем";
+        return new SeededData(userIds, searchWords);
+    }
+
+    private long post(String path, Long userId, Map<String, Object> body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(gateway.resolve(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body)));
+        return mapper.readTree(send(request, userId)).get("id").asLong();
+    }
+
+    private String send(HttpRequest.Builder request, Long userId) throws IOException, InterruptedException {
+        if (userId != null) {
+            request.header("X-Sharer-User-Id", String.valueOf(userId));
+        }
+        HttpRequest built = request.build();
+        HttpResponse<String> response = client.send(built, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Заполнение базы прервано: " + built.method() + " " + built.uri() +
+                    " вернул " + response.statusCode() + " " + response.body());
+        }
+        return response.body();
+    }
+}
@@ -0,0 +1,34 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Переводит идентификаторы бронирований с IDENTITY на последовательность с шагом 50, чтобы Hibernate
+ * выделял идентификаторы пачками и мог группировать вставки в JDBC-батчи. Последовательность
+ * начинается после уже выданных номеров; она же становится значением столбца по умолчанию
+ * для вставок в обход Hibernate.
+ */
+public class V3__create_bookings_sequence extends BaseJavaMigration {
+
+    static final int ALLOCATION_SIZE = 50;
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        try (Statement statement = context.getConnection().createStatement()) {
+            long maxId;
+            try (ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(booking_id), 0) FROM bookings")) {
+                resultSet.next();
+                maxId = resultSet.getLong(1);
+            }
+            statement.execute("CREATE SEQUENCE bookings_seq START WITH " + (maxId + ALLOCATION_SIZE) +
+                    " INCREMENT BY " + ALLOCATION_SIZE);
+            statement.execute("ALTER TABLE bookings ALTER COLUMN booking_id DROP IDENTITY");
+            statement.execute("ALTER TABLE bookings ALTER COLUMN booking_id SET DEFAULT nextval('bookings_seq')");
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package db.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Запрещает на уровне базы одобрять пересекающиеся бронирования одной вещи. Заявка одобряется одним
+ * условным UPDATE без блокировки вещи, поэтому две параллельные транзакции могут одновременно не увидеть
+ * чужого одобрения; вторую из них отклоняет исключающее ограничение PostgreSQL по вещи и периоду.
+ * Раньше пересекающиеся одобрения были возможны, поэтому перед созданием ограничения более поздние
+ * из них отклоняются. Расширение {@code btree_gist} должно быть установлено заранее, если у пользователя
+ * миграций нет прав на {@code CREATE EXTENSION}.
+ */
+@Slf4j
+public class V5__create_bookings_overlap_constraint extends BaseJavaMigration {
+
+    static final String CONSTRAINT_NAME = "bookings_approved_not_overlapping";
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        List<Long> rejected = rejectOverlappingApprovals(connection);
+        if (!rejected.isEmpty()) {
+            log.warn("Отклонены пересекающиеся одобренные бронирования: {}", rejected);
+        }
+        if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            if (!hasBtreeGist(statement)) {
+                try {
+                    statement.execute("CREATE EXTENSION btree_gist");
+                } catch (SQLException e) {
+                    throw new SQLException("Для ограничения " + CONSTRAINT_NAME + " нужно расширение btree_gist: " +
+                            "выполните CREATE EXTENSION btree_gist от имени владельца базы и перезапустите сервер", e);
+                }
+            }
+            statement.execute("ALTER TABLE bookings ADD CONSTRAINT " + CONSTRAINT_NAME + " EXCLUDE USING gist " +
+                    "(item_id WITH =, tsrange(start_of_booking, end_of_booking) WITH &&) " +
+                    "WHERE (status = 'APPROVED')");
+        }
+    }
+
+    /**
+     * Оставляет одобренным первое по номеру бронирование из каждой группы пересекающихся,
+     * остальные переводит в REJECTED и возвращает их номера.
+     */
+    static List<Long> rejectOverlappingApprovals(Connection connection) throws SQLException {
+        Map<Long, List<Timestamp[]>> kept = new HashMap<>();
+        List<Long> rejected = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT booking_id, item_id, start_of_booking, " +
+                     "end_of_booking FROM bookings WHERE status = 'APPROVED' ORDER BY booking_id")) {
+            while (resultSet.next()) {
+                Timestamp start = resultSet.getTimestamp(3);
+                Timestamp end = resultSet.getTimestamp(4);
+                List<Timestamp[]> periods = kept.computeIfAbsent(resultSet.getLong(2), id -> new ArrayList<>());
+                if (periods.stream().anyMatch(period -> period[0].before(end) && period[1].after(start))) {
+                    rejected.add(resultSet.getLong(1));
+                } else {
+                    periods.add(new Timestamp[]{start, end});
+                }
+            }
+        }
+        if (!rejected.isEmpty()) {
+            try (PreparedStatement update = connection.prepareStatement(
+                    "UPDATE bookings SET status = 'REJECTED' WHERE booking_id = ?")) {
+                for (long bookingId : rejected) {
+                    update.setLong(1, bookingId);
+                    update.addBatch();
+                }
+                update.executeBatch();
+            }
+        }
+        return rejected;
+    }
+
+    private static boolean hasBtreeGist(Statement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery(
+                "SELECT 1 FROM pg_extension WHERE extname = 'btree_gist'")) {
+            return resultSet.next();
+        }
+    }
+}
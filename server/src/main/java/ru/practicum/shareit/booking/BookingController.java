@@ -1,8 +1,13 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.ShortBookingDto;
+import ru.practicum.shareit.pagination.Cursor;
 
 import java.util.List;
 
@@ -14,40 +19,78 @@ import java.util.List;
 @RequiredArgsConstructor
 public class BookingController {
 
+    /**
+     * Текущие бронирования пользователя со смещением упорядочены по номеру, а не по началу, поэтому
+     * курсор для них не выдаётся: продолжить такую страницу по ключу нельзя.
+     */
+    private static final String CURRENT_STATE = "CURRENT";
+
     private final BookingService bookingService;
 
     @PostMapping
-    public Booking addBooking(@RequestBody ShortBookingDto shortBookingDto,
+    public BookingDto addBooking(@RequestBody ShortBookingDto shortBookingDto,
                               @RequestHeader("X-Sharer-User-Id") long userId) {
         return bookingService.addBooking(shortBookingDto, userId);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> addBookings(@RequestBody List<ShortBookingDto> shortBookingDtos,
+                                                   @RequestHeader("X-Sharer-User-Id") long userId) {
+        return bookingService.addBookings(shortBookingDtos, userId);
+    }
+
+    @PatchMapping("/batch")
+    public List<BookingBatchResultDto> updateBookings(@RequestBody List<BookingApprovalDto> approvals,
+                                                      @RequestHeader("X-Sharer-User-Id") long userId) {
+        return bookingService.updateBookings(approvals, userId);
+    }
+
     @PatchMapping("/{bookingId}")
-    public Booking updateBooking(@PathVariable long bookingId,
+    public BookingDto updateBooking(@PathVariable long bookingId,
                                  @RequestHeader("X-Sharer-User-Id") long userId,
                                  @RequestParam String approved) {
         return bookingService.updateBooking(bookingId, userId, approved);
     }
 
     @GetMapping("/{bookingId}")
-    public Booking getBooking(@PathVariable long bookingId, @RequestHeader("X-Sharer-User-Id") long userId) {
+    public BookingDto getBooking(@PathVariable long bookingId, @RequestHeader("X-Sharer-User-Id") long userId) {
         return bookingService.getBooking(bookingId, userId);
     }
 
     @GetMapping
-    public List<Booking> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
-                                     @RequestParam String state,
-                                     @RequestParam Integer from,
-                                     @RequestParam Integer size) {
-        return bookingService.getBookingsByUser(userId, state, from, size);
+    public ResponseEntity<List<BookingDto>> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                     @RequestParam String state,
+                                                     @RequestParam Integer from,
+                                                     @RequestParam Integer size,
+                                                     @RequestParam(required = false) String after) {
+        List<BookingDto> bookings = after == null
+                ? bookingService.getBookingsByUser(userId, state, from, size)
+                : bookingService.getBookingsByUserAfter(userId, state, Cursor.parse(after), size);
+        if (after == null && CURRENT_STATE.equals(state)) {
+            return ResponseEntity.ok(bookings);
+        }
+        return withNextCursor(bookings, size);
     }
 
     @GetMapping("/owner")
-    public List<Booking> getOwnersBookings(@RequestHeader("X-Sharer-User-Id") long userId,
-                                           @RequestParam String state,
-                                           @RequestParam Integer from,
-                                           @RequestParam Integer size) {
-        return bookingService.getBookingsByOwner(userId, state, from, size);
+    public ResponseEntity<List<BookingDto>> getOwnersBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                           @RequestParam String state,
+                                                           @RequestParam Integer from,
+                                                           @RequestParam Integer size,
+                                                           @RequestParam(required = false) String after) {
+        List<BookingDto> bookings = after == null
+                ? bookingService.getBookingsByOwner(userId, state, from, size)
+                : bookingService.getBookingsByOwnerAfter(userId, state, Cursor.parse(after), size);
+        return withNextCursor(bookings, size);
+    }
+
+    private ResponseEntity<List<BookingDto>> withNextCursor(List<BookingDto> bookings, Integer size) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!bookings.isEmpty() && bookings.size() == size) {
+            BookingDto last = bookings.get(bookings.size() - 1);
+            response.header(Cursor.NEXT_CURSOR_HEADER, Cursor.of(last.getStart(), last.getId()).toString());
+        }
+        return response.body(bookings);
     }
 
     @DeleteMapping("/{bookingId}")
@@ -0,0 +1,284 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.index.TransactionalIndex;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * Занятость вещей одобренными бронированиями. Для каждой вещи хранит периоды бронирований,
+ * упорядоченные по началу, и самый длинный из них, поэтому бронирования, пересекающие окно,
+ * находятся за O(log n + k) без обращения к базе данных.
+ */
+@Component
+public class BookingOccupancyIndex extends TransactionalIndex {
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, ItemOccupancy> items = new HashMap<>();
+    private final Map<Long, Span> spans = new HashMap<>();
+
+    public BookingOccupancyIndex(BookingRepository bookingRepository,
+                                 @Value("${shareit.availability.index.enabled:true}") boolean enabled) {
+        super("Индекс занятости вещей", enabled);
+        this.bookingRepository = bookingRepository;
+    }
+
+    @Override
+    protected boolean load() {
+        long lastId = 0;
+        List<Booking> batch;
+        do {
+            batch = bookingRepository.findAllByStatusAndIdGreaterThanOrderByIdAsc(Status.APPROVED, lastId,
+                    PageRequest.of(0, REBUILD_BATCH_SIZE));
+            for (Booking booking : batch) {
+                put(new Span(booking));
+                lastId = booking.getId();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+        return true;
+    }
+
+    @Override
+    protected void clear() {
+        items.clear();
+        spans.clear();
+    }
+
+    @Override
+    protected int size() {
+        return spans.size();
+    }
+
+    /**
+     * Учитывает новый статус бронирования после фиксации текущей транзакции: одобренное
+     * бронирование занимает вещь, любое другое её освобождает.
+     */
+    public void index(Booking booking) {
+        index(booking, booking.getStatus());
+    }
+
+    /**
+     * То же, что {@link #index(Booking)}, для статуса, записанного в базу в обход сущности.
+     */
+    public void index(Booking booking, Status status) {
+        Span span = new Span(booking);
+        boolean approved = status == Status.APPROVED;
+        afterCommit(span.bookingId, () -> {
+            removeSpan(span.bookingId);
+            if (approved) {
+                put(span);
+            }
+        });
+    }
+
+    /**
+     * Удаляет бронирование из индекса после фиксации текущей транзакции.
+     */
+    public void remove(long bookingId) {
+        afterCommit(bookingId, () -> removeSpan(bookingId));
+    }
+
+    /**
+     * Удаляет занятость вещи после фиксации транзакции, удалившей вещь вместе с её бронированиями.
+     */
+    public void removeItem(long itemId) {
+        afterCommit(() -> {
+            ItemOccupancy occupancy = items.remove(itemId);
+            if (occupancy != null) {
+                occupancy.spans.forEach(span -> spans.remove(span.bookingId));
+            }
+        });
+    }
+
+    /**
+     * Удаляет бронирования пользователя после фиксации транзакции, удалившей его вместе с ними.
+     */
+    public void removeBooker(long userId) {
+        afterCommit(() -> {
+            List<Long> bookingIds = new ArrayList<>();
+            for (Span span : spans.values()) {
+                if (span.bookerId != null && span.bookerId == userId) {
+                    bookingIds.add(span.bookingId);
+                }
+            }
+            bookingIds.forEach(this::removeSpan);
+        });
+    }
+
+    /**
+     * Возвращает занятые периоды вещи внутри окна {@code [from, to)}: соприкасающиеся и
+     * пересекающиеся бронирования объединены, границы обрезаны по окну.
+     */
+    public Optional<List<AvailabilityIntervalDto>> findBusy(long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!isReady()) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            ItemOccupancy occupancy = items.get(itemId);
+            if (occupancy == null) {
+                return Optional.of(new ArrayList<>());
+            }
+            Span probe = new Span(Long.MIN_VALUE, null, from.minus(occupancy.longest), from);
+            List<Span> overlapping = new ArrayList<>();
+            for (Span span : occupancy.spans.tailSet(probe, true)) {
+                if (!span.start.isBefore(to)) {
+                    break;
+                }
+                if (span.end.isAfter(from)) {
+                    overlapping.add(span);
+                }
+            }
+            return Optional.of(merge(overlapping, from, to));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Проверяет, что у вещи нет одобренных бронирований, пересекающих период {@code [from, to)}.
+     * Вызывается только для готового индекса, см. {@link #isReady()}.
+     */
+    public boolean isFree(long itemId, LocalDateTime from, LocalDateTime to) {
+        lock.readLock().lock();
+        try {
+            ItemOccupancy occupancy = items.get(itemId);
+            if (occupancy == null) {
+                return true;
+            }
+            Span probe = new Span(Long.MIN_VALUE, null, from.minus(occupancy.longest), from);
+            for (Span span : occupancy.spans.tailSet(probe, true)) {
+                if (!span.start.isBefore(to)) {
+                    return true;
+                }
+                if (span.end.isAfter(from)) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Объединяет одобренные бронирования, упорядоченные по началу, в занятые периоды окна
+     * {@code [from, to)} так же, как {@link #findBusy}.
+     */
+    public static List<AvailabilityIntervalDto> mergeBusy(List<Booking> bookings, LocalDateTime from,
+                                                          LocalDateTime to) {
+        List<Span> overlapping = new ArrayList<>();
+        for (Booking booking : bookings) {
+            overlapping.add(new Span(booking.getId(), null, booking.getStart(), booking.getEnd()));
+        }
+        return merge(overlapping, from, to);
+    }
+
+    private static List<AvailabilityIntervalDto> merge(List<Span> sortedSpans, LocalDateTime from,
+                                                       LocalDateTime to) {
+        List<AvailabilityIntervalDto> busy = new ArrayList<>();
+        LocalDateTime start = null;
+        LocalDateTime end = null;
+        for (Span span : sortedSpans) {
+            if (start != null && !span.start.isAfter(end)) {
+                if (span.end.isAfter(end)) {
+                    end = span.end;
+                }
+                continue;
+            }
+            if (start != null) {
+                busy.add(clip(start, end, from, to));
+            }
+            start = span.start;
+            end = span.end;
+        }
+        if (start != null) {
+            busy.add(clip(start, end, from, to));
+        }
+        return busy;
+    }
+
+    private static AvailabilityIntervalDto clip(LocalDateTime start, LocalDateTime end, LocalDateTime from,
+                                                LocalDateTime to) {
+        return new AvailabilityIntervalDto(start.isBefore(from) ? from : start, end.isAfter(to) ? to : end);
+    }
+
+    private void put(Span span) {
+        spans.put(span.bookingId, span);
+        ItemOccupancy occupancy = items.computeIfAbsent(span.itemId, itemId -> new ItemOccupancy());
+        occupancy.spans.add(span);
+        Duration length = Duration.between(span.start, span.end);
+        if (length.compareTo(occupancy.longest) > 0) {
+            occupancy.longest = length;
+        }
+    }
+
+    private void removeSpan(long bookingId) {
+        Span span = spans.remove(bookingId);
+        if (span == null) {
+            return;
+        }
+        ItemOccupancy occupancy = items.get(span.itemId);
+        occupancy.spans.remove(span);
+        if (occupancy.spans.isEmpty()) {
+            items.remove(span.itemId);
+        } else if (Duration.between(span.start, span.end).equals(occupancy.longest)) {
+            occupancy.longest = Duration.ZERO;
+            for (Span other : occupancy.spans) {
+                Duration length = Duration.between(other.start, other.end);
+                if (length.compareTo(occupancy.longest) > 0) {
+                    occupancy.longest = length;
+                }
+            }
+        }
+    }
+
+    /**
+     * Бронирования вещи по началу и длина самого длинного из них.
+     */
+    private static final class ItemOccupancy {
+        private final NavigableSet<Span> spans = new TreeSet<>(Span.BY_START);
+        private Duration longest = Duration.ZERO;
+    }
+
+    private static final class Span {
+        private static final Comparator<Span> BY_START = Comparator.comparing((Span span) -> span.start)
+                .thenComparingLong(span -> span.bookingId);
+
+        private final long bookingId;
+        private final Long itemId;
+        private final Long bookerId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        private Span(Booking booking) {
+            this.bookingId = booking.getId();
+            this.itemId = booking.getItem().getId();
+            this.bookerId = booking.getBooker() == null ? null : booking.getBooker().getId();
+            this.start = booking.getStart();
+            this.end = booking.getEnd();
+        }
+
+        private Span(long bookingId, Long itemId, LocalDateTime start, LocalDateTime end) {
+            this.bookingId = bookingId;
+            this.itemId = itemId;
+            this.bookerId = null;
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
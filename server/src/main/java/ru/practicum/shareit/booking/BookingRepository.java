@@ -1,13 +1,16 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.Item;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
@@ -29,26 +32,148 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "WHERE o.id = ?1")
     List<Booking> getAllBookingsInfoByOwner(long userId);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findById(Long id);
+
     List<Booking> findAllByBookerId(long bookerId);
 
     List<Booking> findByItemId(long itemId);
 
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = ?2 WHERE b.id = ?1 AND b.status IN ?3")
+    int updateStatus(long bookingId, Status status, Collection<Status> expectedStatuses);
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = ru.practicum.shareit.booking.Status.APPROVED " +
+            "WHERE b.id = ?1 AND b.status IN ?2 " +
+            "AND NOT EXISTS (SELECT o.id FROM Booking o " +
+            "WHERE o.item = b.item AND o.status = ru.practicum.shareit.booking.Status.APPROVED " +
+            "AND o.start < b.end AND o.end > b.start AND o.id <> b.id)")
+    int approveIfFree(long bookingId, Collection<Status> expectedStatuses);
+
+    boolean existsByItemIdAndStatusAndStartBeforeAndEndAfter(long itemId, Status status, LocalDateTime end,
+                                                             LocalDateTime start);
+
+    boolean existsByItemIdAndStatusAndStartBeforeAndEndAfterAndIdNot(long itemId, Status status, LocalDateTime end,
+                                                                     LocalDateTime start, long bookingId);
+
+    List<Booking> findAllByItemIdInAndStatusAndStartBeforeAndEndAfter(Collection<Long> itemIds, Status status,
+                                                                      LocalDateTime end, LocalDateTime start);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllByIdIn(Collection<Long> ids);
+
+    List<Booking> findAllByItemIdAndStatusAndStartBeforeAndEndAfterOrderByStartAsc(long itemId, Status status,
+                                                                                   LocalDateTime end,
+                                                                                   LocalDateTime start);
+
+    List<Booking> findAllByStatusAndIdGreaterThanOrderByIdAsc(Status status, long id, Pageable pageable);
+
     List<Booking> findAllByItemInAndStatusOrderByStartAsc(List<Item> items, Status status);
 
+    @Query("SELECT b " +
+            "FROM Booking b " +
+            "JOIN FETCH b.booker " +
+            "WHERE b.item.id IN ?1 " +
+            "AND b.status = ?2 " +
+            "AND (b.start = (SELECT MAX(lb.start) " +
+            "FROM Booking lb " +
+            "WHERE lb.item.id = b.item.id " +
+            "AND lb.status = ?2 " +
+            "AND lb.start < ?3) " +
+            "OR b.start = (SELECT MIN(nb.start) " +
+            "FROM Booking nb " +
+            "WHERE nb.item.id = b.item.id " +
+            "AND nb.status = ?2 " +
+            "AND nb.start > ?3))")
+    List<Booking> findLastAndNextBookingsByItemIdIn(Collection<Long> itemIds, Status status, LocalDateTime now);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("SELECT b " +
             "FROM Booking b " +
             "JOIN b.item AS i " +
             "JOIN i.owner AS o " +
             "WHERE o.id = ?1")
-    Page<Booking> getAllBookingsInfoByOwnerLikePage(long userId, Pageable pageable);
+    List<Booking> getAllBookingsInfoByOwnerLikePage(long userId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllByBookerId(long bookerId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllByBookerIdAndStatusEquals(long bookerId, Status status, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllByBookerIdAndEndIsBefore(long bookerId, LocalDateTime now, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllByBookerIdAndStartIsBeforeOrderByIdAsc(long bookerId, LocalDateTime now, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllByBookerIdAndStartIsAfter(long bookerId, LocalDateTime now, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllByItemOwnerIdAndStatusEquals(long ownerId, Status status, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllByItemOwnerIdAndEndIsBefore(long ownerId, LocalDateTime now, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfter(long ownerId, LocalDateTime start,
+                                                                     LocalDateTime end, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllByItemOwnerIdAndStartIsAfter(long ownerId, LocalDateTime now, Pageable pageable);
+
+    String AFTER_CURSOR = "AND (b.start < :start OR b.start = :start AND b.id < :id) " +
+            "ORDER BY b.start DESC, b.id DESC";
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :userId " + AFTER_CURSOR)
+    List<Booking> findAllByBookerIdAfter(long userId, LocalDateTime start, long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :userId AND b.status = :status " + AFTER_CURSOR)
+    List<Booking> findAllByBookerIdAndStatusAfter(long userId, Status status, LocalDateTime start, long id,
+                                                  Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :userId AND b.end < :now " + AFTER_CURSOR)
+    List<Booking> findPastByBookerIdAfter(long userId, LocalDateTime now, LocalDateTime start, long id,
+                                          Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :userId AND b.start < :now AND b.end > :now " +
+            AFTER_CURSOR)
+    List<Booking> findCurrentByBookerIdAfter(long userId, LocalDateTime now, LocalDateTime start, long id,
+                                             Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :userId AND b.start > :now " + AFTER_CURSOR)
+    List<Booking> findFutureByBookerIdAfter(long userId, LocalDateTime now, LocalDateTime start, long id,
+                                            Pageable pageable);
 
-    Page<Booking> findAllByBookerId(long bookerId, Pageable pageable);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :userId " + AFTER_CURSOR)
+    List<Booking> findAllByItemOwnerIdAfter(long userId, LocalDateTime start, long id, Pageable pageable);
 
-    Page<Booking> findAllByBookerIdAndStatusEquals(long bookerId, Status status, Pageable pageable);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :userId AND b.status = :status " + AFTER_CURSOR)
+    List<Booking> findAllByItemOwnerIdAndStatusAfter(long userId, Status status, LocalDateTime start, long id,
+                                                     Pageable pageable);
 
-    Page<Booking> findAllByBookerIdAndEndIsBefore(long bookerId, LocalDateTime now, Pageable pageable);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :userId AND b.end < :now " + AFTER_CURSOR)
+    List<Booking> findPastByItemOwnerIdAfter(long userId, LocalDateTime now, LocalDateTime start, long id,
+                                             Pageable pageable);
 
-    Page<Booking> findAllByBookerIdAndStartIsBeforeOrderByIdAsc(long bookerId, LocalDateTime now, Pageable pageable);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :userId AND b.start < :now AND b.end > :now " +
+            AFTER_CURSOR)
+    List<Booking> findCurrentByItemOwnerIdAfter(long userId, LocalDateTime now, LocalDateTime start, long id,
+                                                Pageable pageable);
 
-    Page<Booking> findAllByBookerIdAndStartIsAfter(long bookerId, LocalDateTime now, Pageable pageable);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :userId AND b.start > :now " + AFTER_CURSOR)
+    List<Booking> findFutureByItemOwnerIdAfter(long userId, LocalDateTime now, LocalDateTime start, long id,
+                                               Pageable pageable);
 }
@@ -1,20 +1,32 @@
 package ru.practicum.shareit.booking;
 
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.ShortBookingDto;
+import ru.practicum.shareit.pagination.Cursor;
 
 import java.util.List;
 
 public interface BookingService {
 
-    Booking addBooking(ShortBookingDto shortBookingDto, long userId);
+    BookingDto addBooking(ShortBookingDto shortBookingDto, long userId);
 
-    Booking updateBooking(long id, long userId, String approved);
+    BookingDto updateBooking(long id, long userId, String approved);
 
-    Booking getBooking(long bookingId, long userId);
+    List<BookingBatchResultDto> addBookings(List<ShortBookingDto> shortBookingDtos, long userId);
 
-    List<Booking> getBookingsByUser(long userId, String state, Integer from, Integer size);
+    List<BookingBatchResultDto> updateBookings(List<BookingApprovalDto> approvals, long userId);
 
-    List<Booking> getBookingsByOwner(long userId, String state, Integer from, Integer size);
+    BookingDto getBooking(long bookingId, long userId);
+
+    List<BookingDto> getBookingsByUser(long userId, String state, Integer from, Integer size);
+
+    List<BookingDto> getBookingsByOwner(long userId, String state, Integer from, Integer size);
+
+    List<BookingDto> getBookingsByUserAfter(long userId, String state, Cursor after, Integer size);
+
+    List<BookingDto> getBookingsByOwnerAfter(long userId, String state, Cursor after, Integer size);
 
     void deleteBooking(long id);
 }
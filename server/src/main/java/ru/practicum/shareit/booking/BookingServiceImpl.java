@@ -2,23 +2,42 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.ShortBookingDto;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.UnsupportedStateException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.ItemServiceImpl;
 import ru.practicum.shareit.mappers.EntityMapper;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.UserServiceImpl;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,11 +46,20 @@ import java.util.stream.Collectors;
 @Slf4j
 public class BookingServiceImpl implements BookingService {
 
+    /**
+     * Порядок страниц со смещением совпадает с порядком постраничного вывода по ключу, поэтому
+     * курсор последней записи такой страницы продолжает её без пропусков и повторов.
+     */
+    private static final Sort SORT_BY_START_DESC = Sort.by(Sort.Direction.DESC, "start")
+            .and(Sort.by(Sort.Direction.DESC, "id"));
+
     private final BookingRepository bookingRepository;
     private final ItemServiceImpl itemService;
+    private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final UserServiceImpl userService;
     private final EntityMapper entityMapper;
+    private final BookingOccupancyIndex bookingOccupancyIndex;
     private final Comparator<Booking> bookingDateComparator = (booking1, booking2) -> {
         if (booking1.getStart().isBefore(booking2.getStart())) {
             return 1;
@@ -58,19 +86,22 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public Booking addBooking(ShortBookingDto shortBookingDto, long userId) {
+    public BookingDto addBooking(ShortBookingDto shortBookingDto, long userId) {
         Booking inMemoryBookingDto = entityMapper.shortBookingDtoToBooking(shortBookingDto);
         inMemoryBookingDto.setBooker(userService.findUser(userId));
         inMemoryBookingDto.setItem(itemService.findItem(shortBookingDto.getItemId()));
         validateAddBooking(inMemoryBookingDto, userId);
+        checkNoApprovedOverlap(inMemoryBookingDto);
         inMemoryBookingDto.setStatus(Status.WAITING);
         log.info("Заявка на бронирование успешно создана!");
-        return bookingRepository.save(inMemoryBookingDto);
+        Booking savedBooking = bookingRepository.save(inMemoryBookingDto);
+        bookingOccupancyIndex.index(savedBooking);
+        return entityMapper.bookingToBookingDto(savedBooking);
 
     }
 
     @Override
-    public Booking updateBooking(long id, long userId, String approved) {
+    public BookingDto updateBooking(long id, long userId, String approved) {
         Booking bookingFromDb = findBookingById(id);
         if (bookingFromDb.getItem().getOwner().getId() != userId) {
             throw new EntityNotFoundException("Внимание! Заявку на бронирование вещи может подтвердить только " +
@@ -81,20 +112,244 @@ public class BookingServiceImpl implements BookingService {
         } else {
             if (approved.equals(String.valueOf(true)) && (bookingFromDb.getStatus().equals(Status.REJECTED)
                     || bookingFromDb.getStatus().equals(Status.WAITING))) {
-                bookingFromDb.setStatus(Status.APPROVED);
+                BookingDto bookingDto;
+                try {
+                    bookingDto = approve(bookingFromDb, EnumSet.of(Status.WAITING, Status.REJECTED));
+                } catch (DataIntegrityViolationException e) {
+                    throw new ConflictException("Внимание! Вещь уже забронирована на пересекающийся период!");
+                }
                 log.info("Заявка под номером " + id + " успешно одобрена!");
-                return bookingRepository.save(bookingFromDb);
+                return bookingDto;
             } else if (approved.equals(String.valueOf(false)) && (bookingFromDb.getStatus().equals(Status.APPROVED)
                     || bookingFromDb.getStatus().equals(Status.WAITING))) {
-                bookingFromDb.setStatus(Status.REJECTED);
-                log.info("Заявка под номером " + id + " успешно одобрена!");
-                return bookingRepository.save(bookingFromDb);
+                BookingDto bookingDto = changeStatus(bookingFromDb, Status.REJECTED,
+                        EnumSet.of(Status.WAITING, Status.APPROVED));
+                log.info("Заявка под номером " + id + " успешно отклонена!");
+                return bookingDto;
             } else {
                 throw new ValidationException("Внимание! Нельзя изменить статус заявки на уже имеющийся!");
             }
         }
     }
 
+    /**
+     * Меняет статус одним условным UPDATE: если параллельный запрос уже перевёл заявку в другой
+     * статус, ни одна строка не обновится и изменение будет отклонено.
+     */
+    private BookingDto changeStatus(Booking booking, Status status, Set<Status> expectedStatuses) {
+        if (bookingRepository.updateStatus(booking.getId(), status, expectedStatuses) == 0) {
+            throw new ValidationException("Внимание! Нельзя изменить статус заявки на уже имеющийся!");
+        }
+        bookingOccupancyIndex.index(booking, status);
+        BookingDto bookingDto = entityMapper.bookingToBookingDto(booking);
+        bookingDto.setStatus(status);
+        return bookingDto;
+    }
+
+    /**
+     * Одобряет заявку одним условным UPDATE, который сам проверяет и ожидаемый статус, и отсутствие
+     * одобренных пересекающихся бронирований; вещь при этом не блокируется. Параллельное пересекающееся
+     * одобрение, которого UPDATE ещё не видит, отклоняет ограничение базы исключением
+     * DataIntegrityViolationException, после которого транзакцию можно только откатить. Причина отказа
+     * выясняется отдельным запросом только тогда, когда ни одна строка не обновилась.
+     */
+    private BookingDto approve(Booking booking, Set<Status> expectedStatuses) {
+        if (bookingRepository.approveIfFree(booking.getId(), expectedStatuses) == 0) {
+            checkNoApprovedOverlap(booking);
+            throw new ValidationException("Внимание! Нельзя изменить статус заявки на уже имеющийся!");
+        }
+        bookingOccupancyIndex.index(booking, Status.APPROVED);
+        BookingDto bookingDto = entityMapper.bookingToBookingDto(booking);
+        bookingDto.setStatus(Status.APPROVED);
+        return bookingDto;
+    }
+
+    /**
+     * Проверяет, что на период бронирования у вещи нет одобренных заявок.
+     */
+    private void checkNoApprovedOverlap(Booking booking) {
+        long itemId = booking.getItem().getId();
+        boolean overlaps = booking.getId() == null
+                ? bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfter(itemId, Status.APPROVED,
+                booking.getEnd(), booking.getStart())
+                : bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfterAndIdNot(itemId,
+                Status.APPROVED, booking.getEnd(), booking.getStart(), booking.getId());
+        if (overlaps) {
+            throw new ConflictException("Внимание! Вещь уже забронирована на пересекающийся период!");
+        }
+    }
+
+    /**
+     * Создаёт заявки одной транзакцией: пользователь и вещи загружаются по одному разу на весь пакет,
+     * одобренные пересекающиеся бронирования — одним запросом, а вставки уходят JDBC-батчами.
+     * Ошибочная запись не прерывает пакет и возвращается со статусом, который дал бы одиночный запрос.
+     */
+    @Override
+    public List<BookingBatchResultDto> addBookings(List<ShortBookingDto> shortBookingDtos, long userId) {
+        User booker = userService.findUser(userId);
+        Set<Long> itemIds = shortBookingDtos.stream()
+                .map(ShortBookingDto::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findAllByIdIn(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        List<Booking> requested = shortBookingDtos.stream()
+                .map(entityMapper::shortBookingDtoToBooking)
+                .collect(Collectors.toList());
+        Map<Long, List<Booking>> approvedByItem = findApprovedByItem(items.keySet(), requested);
+        BookingBatchResultDto[] results = new BookingBatchResultDto[shortBookingDtos.size()];
+        List<Booking> created = new ArrayList<>();
+        List<Integer> createdIndexes = new ArrayList<>();
+        for (int i = 0; i < shortBookingDtos.size(); i++) {
+            try {
+                Item item = items.get(shortBookingDtos.get(i).getItemId());
+                if (item == null) {
+                    throw new EntityNotFoundException("Внимание! Вещи с таким номером не существует!");
+                }
+                Booking booking = requested.get(i);
+                booking.setBooker(booker);
+                booking.setItem(item);
+                validateAddBooking(booking, userId);
+                checkNoApprovedOverlap(booking, approvedByItem.get(item.getId()));
+                booking.setStatus(Status.WAITING);
+                created.add(booking);
+                createdIndexes.add(i);
+            } catch (EntityNotFoundException | ValidationException | ConflictException e) {
+                results[i] = failure(i, e);
+            }
+        }
+        bookingRepository.saveAll(created);
+        created.forEach(bookingOccupancyIndex::index);
+        for (int i = 0; i < created.size(); i++) {
+            int index = createdIndexes.get(i);
+            results[index] = BookingBatchResultDto.success(index, HttpStatus.OK.value(),
+                    entityMapper.bookingToBookingDto(created.get(i)));
+        }
+        log.info("Пакет из " + shortBookingDtos.size() + " заявок обработан, создано " + created.size() + "!");
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Подтверждает и отклоняет заявки одной транзакцией. Сначала проверяется, что заявки принадлежат вещам
+     * пользователя, и только затем блокируются в порядке номеров строки вещей одобряемых заявок, поэтому
+     * пересечения проверяются в памяти — с учётом заявок, одобренных раньше в этом же пакете. Статусы меняются
+     * теми же условными UPDATE, что и при одиночном решении. Одиночное одобрение вещь не блокирует, и если
+     * оно пересечётся с одобрением из пакета, ограничение базы отменит весь пакет с ответом 409.
+     */
+    @Override
+    public List<BookingBatchResultDto> updateBookings(List<BookingApprovalDto> approvals, long userId) {
+        Set<Long> bookingIds = approvals.stream()
+                .map(BookingApprovalDto::getBookingId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Booking> bookings = bookingRepository.findAllByIdIn(bookingIds).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        List<Booking> toApprove = approvals.stream()
+                .filter(approval -> Boolean.TRUE.equals(approval.getApproved()))
+                .map(approval -> bookings.get(approval.getBookingId()))
+                .filter(booking -> booking != null && booking.getItem().getOwner().getId() == userId)
+                .collect(Collectors.toList());
+        Set<Long> itemIds = toApprove.stream()
+                .map(booking -> booking.getItem().getId())
+                .collect(Collectors.toSet());
+        if (!itemIds.isEmpty()) {
+            itemRepository.findAllByIdInForUpdate(itemIds);
+        }
+        Map<Long, List<Booking>> approvedByItem = findApprovedByItem(itemIds, toApprove);
+        Map<Long, Status> statuses = new HashMap<>();
+        BookingBatchResultDto[] results = new BookingBatchResultDto[approvals.size()];
+        for (int i = 0; i < approvals.size(); i++) {
+            BookingApprovalDto approval = approvals.get(i);
+            try {
+                Booking booking = bookings.get(approval.getBookingId());
+                if (booking == null) {
+                    throw new EntityNotFoundException("Внимание! Заявки на бронирование с таким номером " +
+                            "не существует!");
+                }
+                if (booking.getItem().getOwner().getId() != userId) {
+                    throw new EntityNotFoundException("Внимание! Заявку на бронирование вещи может подтвердить " +
+                            "только владелец вещи!");
+                }
+                if (approval.getApproved() == null) {
+                    throw new ValidationException("Внимание! Значение параметра approved может быть только " +
+                            "true или false!");
+                }
+                Status status = statuses.getOrDefault(booking.getId(), booking.getStatus());
+                BookingDto bookingDto;
+                if (approval.getApproved() && (status == Status.REJECTED || status == Status.WAITING)) {
+                    checkNoApprovedOverlap(booking, approvedByItem.get(booking.getItem().getId()), statuses);
+                    bookingDto = approve(booking, EnumSet.of(Status.WAITING, Status.REJECTED));
+                    approvedByItem.get(booking.getItem().getId()).add(booking);
+                } else if (!approval.getApproved() && (status == Status.APPROVED || status == Status.WAITING)) {
+                    bookingDto = changeStatus(booking, Status.REJECTED, EnumSet.of(Status.WAITING, Status.APPROVED));
+                } else {
+                    throw new ValidationException("Внимание! Нельзя изменить статус заявки на уже имеющийся!");
+                }
+                statuses.put(booking.getId(), bookingDto.getStatus());
+                results[i] = BookingBatchResultDto.success(i, HttpStatus.OK.value(), bookingDto);
+            } catch (EntityNotFoundException | ValidationException | ConflictException e) {
+                results[i] = failure(i, e);
+            } catch (DataIntegrityViolationException e) {
+                throw new ConflictException("Внимание! Пересекающееся бронирование одобрено параллельно, " +
+                        "пакет не сохранён!");
+            }
+        }
+        log.info("Пакет из " + approvals.size() + " решений по заявкам обработан!");
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Загружает одним запросом одобренные бронирования вещей, пересекающиеся с общим периодом заявок.
+     */
+    private Map<Long, List<Booking>> findApprovedByItem(Collection<Long> itemIds, List<Booking> candidates) {
+        Map<Long, List<Booking>> approvedByItem = itemIds.stream()
+                .collect(Collectors.toMap(Function.identity(), itemId -> new ArrayList<>()));
+        LocalDateTime from = candidates.stream()
+                .map(Booking::getStart)
+                .filter(Objects::nonNull)
+                .min(Comparator.naturalOrder())
+                .orElse(null);
+        LocalDateTime to = candidates.stream()
+                .map(Booking::getEnd)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+        if (itemIds.isEmpty() || from == null || to == null) {
+            return approvedByItem;
+        }
+        for (Booking booking : bookingRepository.findAllByItemIdInAndStatusAndStartBeforeAndEndAfter(itemIds,
+                Status.APPROVED, to, from)) {
+            approvedByItem.get(booking.getItem().getId()).add(booking);
+        }
+        return approvedByItem;
+    }
+
+    private void checkNoApprovedOverlap(Booking booking, List<Booking> approved) {
+        checkNoApprovedOverlap(booking, approved, Map.of());
+    }
+
+    /**
+     * Проверяет пересечения с учётом статусов, которые заявки получили раньше в этом же пакете.
+     */
+    private void checkNoApprovedOverlap(Booking booking, List<Booking> approved, Map<Long, Status> statuses) {
+        for (Booking other : approved) {
+            if (other != booking && statuses.getOrDefault(other.getId(), other.getStatus()) == Status.APPROVED
+                    && other.getStart().isBefore(booking.getEnd()) && other.getEnd().isAfter(booking.getStart())) {
+                throw new ConflictException("Внимание! Вещь уже забронирована на пересекающийся период!");
+            }
+        }
+    }
+
+    private BookingBatchResultDto failure(int index, RuntimeException e) {
+        HttpStatus status = HttpStatus.BAD_REQUEST;
+        if (e instanceof EntityNotFoundException) {
+            status = HttpStatus.NOT_FOUND;
+        } else if (e instanceof ConflictException) {
+            status = HttpStatus.CONFLICT;
+        }
+        return BookingBatchResultDto.failure(index, status.value(), e.getMessage());
+    }
+
     private Booking findBookingById(long bookingId) {
         return bookingRepository.findById(bookingId).orElseThrow(() ->
                 new EntityNotFoundException("Внимание! Заявки на бронирование с таким номером не существует!"));
@@ -102,14 +357,14 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     @Transactional(readOnly = true)
-    public Booking getBooking(long bookingId, long userId) {
-        if (!userRepository.existsById(userId) || !bookingRepository.existsById(bookingId)) {
+    public BookingDto getBooking(long bookingId, long userId) {
+        if (!userRepository.existsById(userId)) {
             throw new EntityNotFoundException("Внимание! Пользователя или заявки на бронирование с таким номером " +
                     "не существует!");
         }
         Booking booking = findBookingById(bookingId);
         if (booking.getBooker().getId() == userId || booking.getItem().getOwner().getId() == userId) {
-            return bookingRepository.getBookingInfo(bookingId, userId);
+            return entityMapper.bookingToBookingDto(booking);
         } else {
             throw new EntityNotFoundException("Внимание! Информация о бронировании может быть запрошена либо " +
                     "владельцем вещи, либо пользователем, оставившим заявку на бронирование!");
@@ -118,7 +373,11 @@ public class BookingServiceImpl implements BookingService {
 
     @Transactional(readOnly = true)
     @Override
-    public List<Booking> getBookingsByUser(long userId, String state, Integer from, Integer size) {
+    public List<BookingDto> getBookingsByUser(long userId, String state, Integer from, Integer size) {
+        return toBookingDtos(findBookingsByUser(userId, state, from, size));
+    }
+
+    private List<Booking> findBookingsByUser(long userId, String state, Integer from, Integer size) {
         if (!userRepository.existsById(userId)) {
             throw new EntityNotFoundException("Внимание! Пользователя с таким номером не существует!");
         }
@@ -126,40 +385,36 @@ public class BookingServiceImpl implements BookingService {
             throw new IllegalArgumentException("Низя!");
         }
         LocalDateTime now = LocalDateTime.now();
-        Sort sortByStart = Sort.by(Sort.Direction.DESC, "start");
-        Pageable pageable = PageRequest.of(from, size, sortByStart);
-        Pageable pageable1 = PageRequest.of(from / size, size, sortByStart);
+        Pageable pageable = PageRequest.of(from, size, SORT_BY_START_DESC);
+        Pageable pageable1 = PageRequest.of(from / size, size, SORT_BY_START_DESC);
         switch (state) {
             case "WAITING":
                 return bookingRepository.findAllByBookerIdAndStatusEquals(userId,
-                                Status.WAITING, pageable).getContent().stream()
+                                Status.WAITING, pageable).stream()
                         .sorted(bookingDateComparator)
                         .collect(Collectors.toList());
             case "PAST":
-                return bookingRepository.findAllByBookerIdAndEndIsBefore(userId, now, pageable)
-                        .getContent().stream()
+                return bookingRepository.findAllByBookerIdAndEndIsBefore(userId, now, pageable).stream()
                         .sorted(bookingDateComparator)
                         .collect(Collectors.toList());
             case "CURRENT":
-                return bookingRepository.findAllByBookerIdAndStartIsBeforeOrderByIdAsc(userId, now, pageable)
-                        .getContent().stream()
+                return bookingRepository.findAllByBookerIdAndStartIsBeforeOrderByIdAsc(userId, now, pageable).stream()
                         .filter(booking -> booking.getEnd().isAfter(now))
                         .sorted(bookingDateComparator)
                         .sorted(Comparator.comparingLong(Booking::getId))
                         .collect(Collectors.toList());
             case "FUTURE":
-                return bookingRepository.findAllByBookerIdAndStartIsAfter(userId, now, pageable)
-                        .getContent().stream()
+                return bookingRepository.findAllByBookerIdAndStartIsAfter(userId, now, pageable).stream()
                         .filter(booking -> booking.getStart().isAfter(now))
                         .sorted(bookingDateComparator)
                         .collect(Collectors.toList());
             case "REJECTED":
                 return bookingRepository.findAllByBookerIdAndStatusEquals(userId,
-                                Status.REJECTED, pageable).getContent().stream()
+                                Status.REJECTED, pageable).stream()
                         .sorted(bookingDateComparator)
                         .collect(Collectors.toList());
             case "ALL":
-                return bookingRepository.findAllByBookerId(userId, pageable1).getContent();
+                return bookingRepository.findAllByBookerId(userId, pageable1);
             default:
                 throw new UnsupportedStateException("Unknown state: " + state);
         }
@@ -167,50 +422,120 @@ public class BookingServiceImpl implements BookingService {
 
     @Transactional(readOnly = true)
     @Override
-    public List<Booking> getBookingsByOwner(long userId, String state, Integer from, Integer size) {
+    public List<BookingDto> getBookingsByOwner(long userId, String state, Integer from, Integer size) {
+        return toBookingDtos(findBookingsByOwner(userId, state, from, size));
+    }
+
+    private List<Booking> findBookingsByOwner(long userId, String state, Integer from, Integer size) {
         if (!userRepository.existsById(userId)) {
             throw new EntityNotFoundException("Внимание! Пользователя с таким номером не существует!");
         }
         LocalDateTime now = LocalDateTime.now();
-        Sort sortByStart = Sort.by(Sort.Direction.DESC, "start");
-        Pageable pageable = PageRequest.of(from, size, sortByStart);
+        Pageable pageable = PageRequest.of(from, size, SORT_BY_START_DESC);
         switch (state) {
             case "WAITING":
-                return bookingRepository.getAllBookingsInfoByOwnerLikePage(userId, pageable).getContent().stream()
-                        .filter(booking -> booking.getStatus().equals(Status.WAITING))
-                        .sorted(bookingDateComparator)
-                        .collect(Collectors.toList());
+                return bookingRepository.findAllByItemOwnerIdAndStatusEquals(userId, Status.WAITING, pageable);
             case "PAST":
-                return bookingRepository.getAllBookingsInfoByOwnerLikePage(userId, pageable).getContent().stream()
-                        .filter(booking -> booking.getEnd().isBefore(now))
-                        .sorted(bookingDateComparator)
-                        .collect(Collectors.toList());
+                return bookingRepository.findAllByItemOwnerIdAndEndIsBefore(userId, now, pageable);
             case "CURRENT":
-                return bookingRepository.getAllBookingsInfoByOwnerLikePage(userId, pageable).getContent().stream()
-                        .filter(booking -> booking.getStart().isBefore(now) && booking.getEnd().isAfter(now))
-                        .sorted(bookingDateComparator)
-                        .collect(Collectors.toList());
+                return bookingRepository.findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfter(userId, now, now,
+                        pageable);
             case "FUTURE":
-                return bookingRepository.getAllBookingsInfoByOwnerLikePage(userId, pageable).getContent().stream()
-                        .filter(booking -> booking.getStart().isAfter(now))
-                        .sorted(bookingDateComparator)
-                        .collect(Collectors.toList());
+                return bookingRepository.findAllByItemOwnerIdAndStartIsAfter(userId, now, pageable);
             case "REJECTED":
-                return bookingRepository.getAllBookingsInfoByOwnerLikePage(userId, pageable).getContent().stream()
-                        .filter(booking -> booking.getStatus().equals(Status.REJECTED))
-                        .sorted(bookingDateComparator)
-                        .collect(Collectors.toList());
+                return bookingRepository.findAllByItemOwnerIdAndStatusEquals(userId, Status.REJECTED, pageable);
             case "ALL":
-                return bookingRepository.getAllBookingsInfoByOwnerLikePage(userId, pageable).getContent().stream()
-                        .sorted(bookingDateComparator)
-                        .collect(Collectors.toList());
+                return bookingRepository.getAllBookingsInfoByOwnerLikePage(userId, pageable);
             default:
                 throw new UnsupportedStateException("Unknown state: " + state);
         }
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public List<BookingDto> getBookingsByUserAfter(long userId, String state, Cursor after, Integer size) {
+        return toBookingDtos(findBookingsByUserAfter(userId, state, after, size));
+    }
+
+    private List<Booking> findBookingsByUserAfter(long userId, String state, Cursor after, Integer size) {
+        if (!userRepository.existsById(userId)) {
+            throw new EntityNotFoundException("Внимание! Пользователя с таким номером не существует!");
+        }
+        validatePageSize(size);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = after.getTimestamp();
+        long id = after.getId();
+        Pageable pageable = PageRequest.ofSize(size);
+        switch (state) {
+            case "WAITING":
+                return bookingRepository.findAllByBookerIdAndStatusAfter(userId, Status.WAITING, start, id,
+                        pageable);
+            case "PAST":
+                return bookingRepository.findPastByBookerIdAfter(userId, now, start, id, pageable);
+            case "CURRENT":
+                return bookingRepository.findCurrentByBookerIdAfter(userId, now, start, id, pageable);
+            case "FUTURE":
+                return bookingRepository.findFutureByBookerIdAfter(userId, now, start, id, pageable);
+            case "REJECTED":
+                return bookingRepository.findAllByBookerIdAndStatusAfter(userId, Status.REJECTED, start, id,
+                        pageable);
+            case "ALL":
+                return bookingRepository.findAllByBookerIdAfter(userId, start, id, pageable);
+            default:
+                throw new UnsupportedStateException("Unknown state: " + state);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<BookingDto> getBookingsByOwnerAfter(long userId, String state, Cursor after, Integer size) {
+        return toBookingDtos(findBookingsByOwnerAfter(userId, state, after, size));
+    }
+
+    private List<Booking> findBookingsByOwnerAfter(long userId, String state, Cursor after, Integer size) {
+        if (!userRepository.existsById(userId)) {
+            throw new EntityNotFoundException("Внимание! Пользователя с таким номером не существует!");
+        }
+        validatePageSize(size);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = after.getTimestamp();
+        long id = after.getId();
+        Pageable pageable = PageRequest.ofSize(size);
+        switch (state) {
+            case "WAITING":
+                return bookingRepository.findAllByItemOwnerIdAndStatusAfter(userId, Status.WAITING, start, id,
+                        pageable);
+            case "PAST":
+                return bookingRepository.findPastByItemOwnerIdAfter(userId, now, start, id, pageable);
+            case "CURRENT":
+                return bookingRepository.findCurrentByItemOwnerIdAfter(userId, now, start, id, pageable);
+            case "FUTURE":
+                return bookingRepository.findFutureByItemOwnerIdAfter(userId, now, start, id, pageable);
+            case "REJECTED":
+                return bookingRepository.findAllByItemOwnerIdAndStatusAfter(userId, Status.REJECTED, start, id,
+                        pageable);
+            case "ALL":
+                return bookingRepository.findAllByItemOwnerIdAfter(userId, start, id, pageable);
+            default:
+                throw new UnsupportedStateException("Unknown state: " + state);
+        }
+    }
+
+    private void validatePageSize(Integer size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Внимание! Передано неверное значение size");
+        }
+    }
+
+    private List<BookingDto> toBookingDtos(List<Booking> bookings) {
+        return bookings.stream()
+                .map(entityMapper::bookingToBookingDto)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public void deleteBooking(long id) {
         bookingRepository.deleteById(id);
+        bookingOccupancyIndex.remove(id);
     }
 }
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Результат одной записи пакетного запроса: код статуса, который вернул бы одиночный запрос,
+ * и либо бронирование, либо текст ошибки. Индекс совпадает с позицией записи в запросе.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class BookingBatchResultDto {
+    private int index;
+    private int status;
+    private BookingDto booking;
+    private String error;
+
+    public static BookingBatchResultDto success(int index, int status, BookingDto booking) {
+        return new BookingBatchResultDto(index, status, booking, null);
+    }
+
+    public static BookingBatchResultDto failure(int index, int status, String error) {
+        return new BookingBatchResultDto(index, status, null, error);
+    }
+}
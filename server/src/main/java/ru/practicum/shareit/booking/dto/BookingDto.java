@@ -4,9 +4,9 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import ru.practicum.shareit.booking.State;
-import ru.practicum.shareit.item.Item;
-import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
 
 import java.time.LocalDateTime;
 
@@ -21,11 +21,11 @@ public class BookingDto {
     private Long id;
     private LocalDateTime start;
     private LocalDateTime end;
-    private Item item;
-    private User booker;
-    private State state;
+    private ItemDto item;
+    private UserDto booker;
+    private Status status;
 
-    public BookingDto(Long id, LocalDateTime start, LocalDateTime end, Item item, User booker) {
+    public BookingDto(Long id, LocalDateTime start, LocalDateTime end, ItemDto item, UserDto booker) {
         this.id = id;
         this.start = start;
         this.end = end;
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Кэш пользователей и вещей по номеру. Запись и удаление из кэша выполняются после фиксации
+ * транзакции, чтобы параллельный запрос не вернул в кэш ещё не сохранённое состояние.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String USERS = "users";
+    public static final String ITEMS = "items";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${shareit.cache.spec}") String spec) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager(USERS, ITEMS);
+        caffeineCacheManager.setCaffeine(Caffeine.from(spec));
+        caffeineCacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
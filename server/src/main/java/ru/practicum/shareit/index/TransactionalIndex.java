@@ -0,0 +1,144 @@
+package ru.practicum.shareit.index;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Индекс в памяти, который строится при старте и обновляется после фиксации транзакций. Пока индекс
+ * не построен или выключен, {@link #isReady} возвращает false и данные читаются из БД.
+ *
+ * <p>Обработчики фиксации выполняются уже после снятия блокировок, поэтому изменения одной записи могут
+ * дойти до индекса не в том порядке, в каком были зафиксированы. Изменение получает версию в момент
+ * вызова {@link #afterCommit(long, Runnable)}, пока транзакция держит строку записи, и применяется,
+ * только если оно новее уже применённого.
+ */
+@Slf4j
+public abstract class TransactionalIndex {
+
+    protected final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final String name;
+    private final boolean enabled;
+    private final Map<Long, Change> changes = new HashMap<>();
+    private long lastVersion;
+    private volatile boolean ready;
+
+    protected TransactionalIndex(String name, boolean enabled) {
+        this.name = name;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            log.info(name + " выключен, данные читаются запросами к базе данных.");
+            return;
+        }
+        ready = false;
+        lock.writeLock().lock();
+        try {
+            clear();
+            if (load()) {
+                ready = true;
+                log.info(name + " построен, записей: " + size());
+            } else {
+                clear();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Загружает все записи из БД; false, если индекс построить нельзя.
+     */
+    protected abstract boolean load();
+
+    protected abstract void clear();
+
+    protected abstract int size();
+
+    /**
+     * Выключает индекс до следующей перестройки. Вызывается под блокировкой записи.
+     */
+    protected void invalidate() {
+        ready = false;
+        clear();
+    }
+
+    /**
+     * То же, что {@link #afterCommit(Runnable)}, но изменение записи key пропускается, если уже
+     * применено более позднее. Вызывать после того, как изменение записано в БД.
+     */
+    protected void afterCommit(long key, Runnable change) {
+        long version;
+        lock.writeLock().lock();
+        try {
+            version = ++lastVersion;
+            changes.computeIfAbsent(key, id -> new Change()).pending++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        afterCompletion(committed -> {
+            lock.writeLock().lock();
+            try {
+                Change applied = changes.get(key);
+                if (committed && version > applied.version) {
+                    applied.version = version;
+                    change.run();
+                }
+                if (--applied.pending == 0) {
+                    changes.remove(key);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Применяет изменение под блокировкой записи после фиксации текущей транзакции.
+     */
+    protected void afterCommit(Runnable change) {
+        afterCompletion(committed -> {
+            if (committed) {
+                lock.writeLock().lock();
+                try {
+                    change.run();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        });
+    }
+
+    private static void afterCompletion(Consumer<Boolean> action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.accept(status == STATUS_COMMITTED);
+                }
+            });
+        } else {
+            action.accept(true);
+        }
+    }
+
+    private static final class Change {
+        private long version;
+        private int pending;
+    }
+}
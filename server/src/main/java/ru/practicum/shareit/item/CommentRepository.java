@@ -1,7 +1,11 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
@@ -9,4 +13,44 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findAllByAuthorId(long authorId);
 
     List<Comment> findAllByItemId(long itemId);
+
+    @Query("SELECT c " +
+            "FROM Comment c " +
+            "JOIN FETCH c.author " +
+            "WHERE c.item.id IN ?1 " +
+            "ORDER BY c.created, c.id")
+    List<Comment> findAllByItemIdIn(Collection<Long> itemIds);
+
+    @Query("SELECT c " +
+            "FROM Comment c " +
+            "JOIN FETCH c.author " +
+            "WHERE c.item.id = ?1 " +
+            "ORDER BY c.created DESC, c.id DESC")
+    List<Comment> findPageByItemId(long itemId, Pageable pageable);
+
+    /**
+     * Страница отзывов вещи, следующих за отзывом с датой created и номером id при обходе от новых к старым.
+     */
+    @Query("SELECT c " +
+            "FROM Comment c " +
+            "JOIN FETCH c.author " +
+            "WHERE c.item.id = ?1 " +
+            "AND (c.created < ?2 OR (c.created = ?2 AND c.id < ?3)) " +
+            "ORDER BY c.created DESC, c.id DESC")
+    List<Comment> findPageByItemIdAfter(long itemId, LocalDateTime created, long id, Pageable pageable);
+
+    /**
+     * Последние limit отзывов каждой вещи из списка по возрастанию даты вместе с общим числом отзывов вещи.
+     */
+    @Query(value = "SELECT w.comment_id AS commentId, w.item_id AS itemId, w.text AS text, " +
+            "u.name AS authorName, w.created AS created, w.total AS total " +
+            "FROM (SELECT c.comment_id, c.item_id, c.user_id, c.text, c.created, " +
+            "ROW_NUMBER() OVER (PARTITION BY c.item_id ORDER BY c.created DESC, c.comment_id DESC) AS place, " +
+            "COUNT(*) OVER (PARTITION BY c.item_id) AS total " +
+            "FROM comments c " +
+            "WHERE c.item_id IN ?1) w " +
+            "JOIN users u ON u.user_id = w.user_id " +
+            "WHERE w.place <= ?2 " +
+            "ORDER BY w.created, w.comment_id", nativeQuery = true)
+    List<LatestComment> findLatestByItemIdIn(Collection<Long> itemIds, int limit);
 }
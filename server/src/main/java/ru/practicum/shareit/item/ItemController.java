@@ -1,10 +1,15 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.pagination.Cursor;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -50,8 +55,24 @@ public class ItemController {
     @GetMapping("/search")
     public List<ItemDto> searchItem(@RequestParam String text,
                                     @RequestParam Integer from,
-                                    @RequestParam Integer size) {
-        return itemService.searchItem(text, from, size);
+                                    @RequestParam Integer size,
+                                    @RequestParam(required = false)
+                                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                    @RequestParam(required = false)
+                                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        if (start == null && end == null) {
+            return itemService.searchItem(text, from, size);
+        }
+        return itemService.searchItem(text, from, size, start, end);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(@PathVariable long itemId,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime from,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime to) {
+        return itemService.getAvailability(itemId, from, to);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -60,4 +81,17 @@ public class ItemController {
                                  @RequestHeader("X-Sharer-User-Id") long userId) {
         return itemService.addComment(commentDto, itemId, userId);
     }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<List<CommentDto>> getComments(@PathVariable long itemId,
+                                                        @RequestParam(required = false) String after,
+                                                        @RequestParam Integer size) {
+        List<CommentDto> comments = itemService.getComments(itemId, after == null ? null : Cursor.parse(after), size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!comments.isEmpty() && comments.size() == size) {
+            CommentDto last = comments.get(comments.size() - 1);
+            response.header(Cursor.NEXT_CURSOR_HEADER, Cursor.of(last.getCreated(), last.getId()).toString());
+        }
+        return response.body(comments);
+    }
 }
@@ -2,13 +2,30 @@ package ru.practicum.shareit.item;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.Status;
 
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
+    @EntityGraph(attributePaths = "owner")
+    Optional<Item> findById(Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id IN ?1 ORDER BY i.id")
+    List<Item> findAllByIdInForUpdate(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = "owner")
+    List<Item> findAllByIdIn(Collection<Long> ids);
+
     @Query(value = "SELECT i " +
             "from Item i " +
             "JOIN i.owner AS o " +
@@ -24,7 +41,32 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> searchByText(String text);
 
     @Query(value = "select i from Item i " +
-            "where upper(i.name) like upper(concat('%', ?1, '%')) " +
-            " or upper(i.description) like upper(concat('%', ?1, '%'))")
+            "where i.available = true " +
+            " and (upper(i.name) like upper(concat('%', ?1, '%')) " +
+            " or upper(i.description) like upper(concat('%', ?1, '%')))")
     Page<Item> searchByTextLikePage(String text, Pageable pageable);
+
+    @Query(value = "select i from Item i " +
+            "where i.available = true " +
+            " and (upper(i.name) like upper(concat('%', ?1, '%')) " +
+            " or upper(i.description) like upper(concat('%', ?1, '%'))) " +
+            " and not exists (select b.id from Booking b " +
+            " where b.item = i and b.status = ?4 and b.start < ?3 and b.end > ?2) " +
+            "order by i.id")
+    Page<Item> searchFreeByTextLikePage(String text, LocalDateTime start, LocalDateTime end, Status status,
+                                        Pageable pageable);
+
+    List<Item> findAllByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
+
+    List<Item> findAllByRequestIdIn(Collection<Long> requestIds);
+
+    @Query("SELECT i.id FROM Item i WHERE i.request.id = ?1")
+    List<Long> findIdsByRequestId(long requestId);
+
+    /**
+     * Вещи, которые удаляются каскадно вместе с пользователем: его собственные и созданные
+     * в ответ на его запросы.
+     */
+    @Query("SELECT i.id FROM Item i LEFT JOIN i.request r WHERE i.owner.id = ?1 OR r.requester.id = ?1")
+    List<Long> findIdsByOwnerIdOrRequesterId(long userId);
 }
@@ -0,0 +1,333 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.index.TransactionalIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.LongPredicate;
+
+/**
+ * Инвертированный индекс (триграммы + слова) по названию и описанию вещей.
+ * Хранит только доступные для поиска поля, поэтому отбор по доступности и ранжирование
+ * выполняются без обращения к базе данных. Пока индекс не построен или выключен,
+ * {@link #search} возвращает пустой Optional и поиск выполняется запросом к БД.
+ */
+@Component
+@Slf4j
+public class ItemSearchIndex extends TransactionalIndex {
+
+    private static final int GRAM_LENGTH = 3;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final Map<Integer, IndexedItem> items = new HashMap<>();
+    private final Map<String, Postings> trigrams = new HashMap<>();
+    private final Map<String, Postings> tokens = new HashMap<>();
+
+    public ItemSearchIndex(ItemRepository itemRepository,
+                           @Value("${shareit.search.index.enabled:true}") boolean enabled) {
+        super("Поисковый индекс вещей", enabled);
+        this.itemRepository = itemRepository;
+    }
+
+    @Override
+    protected boolean load() {
+        long lastId = 0;
+        List<Item> batch;
+        do {
+            batch = itemRepository.findAllByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            for (Item item : batch) {
+                if (!put(item)) {
+                    return false;
+                }
+                lastId = item.getId();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+        return true;
+    }
+
+    @Override
+    protected int size() {
+        return items.size();
+    }
+
+    /**
+     * Добавляет или обновляет вещь в индексе после фиксации текущей транзакции. Изменение вещи
+     * к этому моменту должно быть записано в БД.
+     */
+    public void index(Item item) {
+        IndexedItem indexedItem = new IndexedItem(item.getId(), normalize(item.getName()),
+                normalize(item.getDescription()), Boolean.TRUE.equals(item.getAvailable()));
+        afterCommit(item.getId(), () -> {
+            if (isReady() && !put(indexedItem)) {
+                invalidate();
+            }
+        });
+    }
+
+    /**
+     * Удаляет вещь из индекса после фиксации текущей транзакции.
+     */
+    public void remove(long itemId) {
+        afterCommit(itemId, () -> {
+            if (itemId <= Integer.MAX_VALUE) {
+                removeEntry((int) itemId);
+            }
+        });
+    }
+
+    /**
+     * Возвращает номера доступных вещей, содержащих текст в названии или описании,
+     * в порядке убывания релевантности. Страница выбирается так же, как в
+     * {@link ItemRepository#searchByTextLikePage}: {@code from} — номер страницы.
+     */
+    public Optional<List<Long>> search(String text, int from, int size) {
+        return search(text, from, size, id -> true);
+    }
+
+    /**
+     * То же, что {@link #search(String, int, int)}, но учитывает только вещи, прошедшие фильтр.
+     * Фильтр применяется до ранжирования, поэтому страницы составляются из отфильтрованных вещей.
+     */
+    public Optional<List<Long>> search(String text, int from, int size, LongPredicate filter) {
+        String query = normalize(text);
+        if (!isReady() || query.length() < GRAM_LENGTH) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            List<Postings> postings = new ArrayList<>();
+            for (String gram : grams(query)) {
+                Postings gramPostings = trigrams.get(gram);
+                if (gramPostings == null) {
+                    return Optional.of(new ArrayList<>());
+                }
+                postings.add(gramPostings);
+            }
+            postings.sort(Comparator.comparingInt(Postings::size));
+            Postings tokenHits = tokens.get(query);
+            int limit = (int) Math.min((long) (from + 1) * size, Integer.MAX_VALUE);
+            PriorityQueue<ScoredItem> top = new PriorityQueue<>(ScoredItem.BY_RANK.reversed());
+            Postings candidates = postings.get(0);
+            for (int i = 0; i < candidates.size(); i++) {
+                int id = candidates.get(i);
+                if (!containsInAll(postings, id)) {
+                    continue;
+                }
+                IndexedItem indexedItem = items.get(id);
+                if (!indexedItem.available || !filter.test(id)) {
+                    continue;
+                }
+                int score = score(indexedItem, query, tokenHits);
+                if (score == 0) {
+                    continue;
+                }
+                top.add(new ScoredItem(id, score));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            List<ScoredItem> ranked = new ArrayList<>(top);
+            ranked.sort(ScoredItem.BY_RANK);
+            List<Long> page = new ArrayList<>();
+            for (int i = from * size; i < ranked.size(); i++) {
+                page.add((long) ranked.get(i).id);
+            }
+            return Optional.of(page);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int score(IndexedItem indexedItem, String query, Postings tokenHits) {
+        int score = 0;
+        if (indexedItem.name.contains(query)) {
+            score += indexedItem.name.startsWith(query) ? 3 : 2;
+        }
+        if (indexedItem.description.contains(query)) {
+            score += 1;
+        }
+        if (score > 0 && tokenHits != null && tokenHits.contains(indexedItem.id)) {
+            score += 2;
+        }
+        return score;
+    }
+
+    private static boolean containsInAll(List<Postings> postings, int id) {
+        for (int i = 1; i < postings.size(); i++) {
+            if (!postings.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean put(Item item) {
+        return put(new IndexedItem(item.getId(), normalize(item.getName()), normalize(item.getDescription()),
+                Boolean.TRUE.equals(item.getAvailable())));
+    }
+
+    private boolean put(IndexedItem indexedItem) {
+        if (indexedItem.id < 0) {
+            log.warn("Номер вещи не помещается в поисковый индекс, поиск переключён на запросы к базе данных.");
+            return false;
+        }
+        removeEntry(indexedItem.id);
+        items.put(indexedItem.id, indexedItem);
+        for (String gram : grams(indexedItem.name, indexedItem.description)) {
+            trigrams.computeIfAbsent(gram, key -> new Postings()).add(indexedItem.id);
+        }
+        for (String token : tokens(indexedItem.name, indexedItem.description)) {
+            tokens.computeIfAbsent(token, key -> new Postings()).add(indexedItem.id);
+        }
+        return true;
+    }
+
+    private void removeEntry(int id) {
+        IndexedItem previous = items.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String gram : grams(previous.name, previous.description)) {
+            removeFromPostings(trigrams, gram, id);
+        }
+        for (String token : tokens(previous.name, previous.description)) {
+            removeFromPostings(tokens, token, id);
+        }
+    }
+
+    private static void removeFromPostings(Map<String, Postings> index, String key, int id) {
+        Postings postings = index.get(key);
+        if (postings != null) {
+            postings.remove(id);
+            if (postings.size() == 0) {
+                index.remove(key);
+            }
+        }
+    }
+
+    @Override
+    protected void clear() {
+        items.clear();
+        trigrams.clear();
+        tokens.clear();
+    }
+
+    private static Set<String> grams(String... values) {
+        Set<String> result = new HashSet<>();
+        for (String value : values) {
+            for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+                result.add(value.substring(i, i + GRAM_LENGTH));
+            }
+        }
+        return result;
+    }
+
+    private static Set<String> tokens(String... values) {
+        Set<String> result = new HashSet<>();
+        for (String value : values) {
+            for (String token : value.split("[^\\p{L}\\p{N}]+")) {
+                if (!token.isEmpty()) {
+                    result.add(token);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class IndexedItem {
+        private final int id;
+        private final String name;
+        private final String description;
+        private final boolean available;
+
+        private IndexedItem(Long id, String name, String description, boolean available) {
+            this.id = id == null || id > Integer.MAX_VALUE ? -1 : id.intValue();
+            this.name = name;
+            this.description = description;
+            this.available = available;
+        }
+    }
+
+    private static final class ScoredItem {
+        private static final Comparator<ScoredItem> BY_RANK = Comparator
+                .comparingInt((ScoredItem scoredItem) -> scoredItem.score).reversed()
+                .thenComparingInt(scoredItem -> scoredItem.id);
+
+        private final int id;
+        private final int score;
+
+        private ScoredItem(int id, int score) {
+            this.id = id;
+            this.score = score;
+        }
+    }
+
+    /**
+     * Отсортированный список номеров вещей без упаковки в Long.
+     */
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        private int size() {
+            return size;
+        }
+
+        private int get(int index) {
+            return ids[index];
+        }
+
+        private boolean contains(int id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        private void add(int id) {
+            if (size > 0 && ids[size - 1] < id) {
+                ensureCapacity();
+                ids[size++] = id;
+                return;
+            }
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            int insertAt = -position - 1;
+            ensureCapacity();
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        private void remove(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+                size--;
+            }
+        }
+
+        private void ensureCapacity() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.pagination.Cursor;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,5 +23,11 @@ public interface ItemService {
 
     List<ItemDto> searchItem(String text, Integer from, Integer size);
 
+    List<ItemDto> searchItem(String text, Integer from, Integer size, LocalDateTime start, LocalDateTime end);
+
+    ItemAvailabilityDto getAvailability(long itemId, LocalDateTime from, LocalDateTime to);
+
     CommentDto addComment(CommentDto commentDto, long itemId, long userId);
+
+    List<CommentDto> getComments(long itemId, Cursor after, Integer size);
 }
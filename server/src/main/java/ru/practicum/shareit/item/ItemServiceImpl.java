@@ -2,18 +2,27 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingOccupancyIndex;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.mappers.EntityMapper;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.RequestRepository;
 import ru.practicum.shareit.user.UserRepository;
@@ -21,9 +30,11 @@ import ru.practicum.shareit.user.UserServiceImpl;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -39,6 +50,10 @@ public class ItemServiceImpl implements ItemService {
     private final EntityMapper entityMapper;
     private final UserServiceImpl userService;
     private final RequestRepository requestRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final BookingOccupancyIndex bookingOccupancyIndex;
+    @Value("${shareit.items.comments.limit:0}")
+    private int commentsLimit;
 
     @Override
     public ItemDto addItem(ItemDto itemDto, long userId) {
@@ -50,7 +65,9 @@ public class ItemServiceImpl implements ItemService {
             item.setRequest(itemRequest);
         }
         log.info("Информация о новой вещи успешно добавлена!");
-        ItemDto itemDtoAfterSave = entityMapper.itemToItemDto(itemRepository.save(item));
+        Item savedItem = itemRepository.save(item);
+        itemSearchIndex.index(savedItem);
+        ItemDto itemDtoAfterSave = entityMapper.itemToItemDto(savedItem);
         if (itemDto.getRequestId() != null) {
             itemDtoAfterSave.setRequestId(itemDto.getRequestId());
         }
@@ -58,6 +75,7 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.ITEMS, key = "#itemId")
     public ItemDto updateItem(ItemDto itemDto, long userId, long itemId) {
         if (userRepository.existsById(userId)) {
             Item itemFromDb = findItem(itemId);
@@ -76,45 +94,74 @@ public class ItemServiceImpl implements ItemService {
                         "владельца вещи!");
             }
             log.info("Информация о вещи с номером " + itemId + " успешно добавлена!");
-            return entityMapper.itemToItemDto(itemRepository.save(itemFromDb));
+            Item savedItem = itemRepository.saveAndFlush(itemFromDb);
+            itemSearchIndex.index(savedItem);
+            return entityMapper.itemToItemDto(savedItem);
         }
         throw new EntityNotFoundException("Внимание! Пользователя или вещи с таким номером не существует!");
     }
 
+    @Cacheable(cacheNames = CacheConfig.ITEMS)
     public Item findItem(long id) {
         return itemRepository.findById(id).orElseThrow(() ->
                 new EntityNotFoundException("Внимание! Вещи с таким номером не существует!"));
     }
 
-    private ItemDto setLastAndNextBooking(Item item, List<Booking> bookings) {
+    private ItemDto setLastAndNextBooking(Item item, List<Booking> bookings, LocalDateTime now) {
         if (bookings == null) {
             return entityMapper.itemToItemDto(item);
         }
-        LocalDateTime now = LocalDateTime.now();
-        Booking lastBooking = bookings.stream()
-                .filter(booking -> booking.getStart().isBefore(now))
-                .max(Comparator.comparing(Booking::getEnd))
-                .orElse(null);
-        Booking nextBooking = bookings.stream()
-                .filter(booking -> booking.getStart().isAfter(now))
-                .min(Comparator.comparing(Booking::getStart))
-                .orElse(null);
+        Booking lastBooking = null;
+        Booking nextBooking = null;
+        for (Booking booking : bookings) {
+            if (booking.getStart().isBefore(now)) {
+                if (lastBooking == null || booking.getEnd().isAfter(lastBooking.getEnd())) {
+                    lastBooking = booking;
+                }
+            } else if (booking.getStart().isAfter(now)) {
+                if (nextBooking == null || booking.getStart().isBefore(nextBooking.getStart())) {
+                    nextBooking = booking;
+                }
+            }
+        }
         ItemDto itemDto = entityMapper.itemToItemDto(item);
         if (lastBooking != null) {
             itemDto.setLastBooking(entityMapper.bookingToLastBooking(lastBooking));
         }
-        if (lastBooking != null) {
+        if (nextBooking != null) {
             itemDto.setNextBooking(entityMapper.bookingToNextBooking(nextBooking));
         }
         return itemDto;
     }
 
-    private ItemDto setComments(ItemDto itemDto, List<Comment> comments) {
-        comments.sort(Comparator.comparing(Comment::getCreated));
-        itemDto.setComments(comments.stream()
-                .map(entityMapper::commentToCommentDto)
-                .collect(Collectors.toList()));
-        return itemDto;
+    /**
+     * Загружает отзывы вещей одним запросом по возрастанию даты. При заданном commentsLimit у каждой
+     * вещи остаются только последние commentsLimit отзывов, а общее их число — в commentsCount.
+     */
+    private void setComments(List<ItemDto> itemDtos) {
+        List<Long> itemIds = itemDtos.stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<CommentDto>> commentsByItem = new HashMap<>();
+        Map<Long, Long> totals = new HashMap<>();
+        if (commentsLimit > 0) {
+            for (LatestComment comment : commentRepository.findLatestByItemIdIn(itemIds, commentsLimit)) {
+                commentsByItem.computeIfAbsent(comment.getItemId(), id -> new ArrayList<>())
+                        .add(new CommentDto(comment.getCommentId(), comment.getText(), comment.getAuthorName(),
+                                comment.getCreated()));
+                totals.put(comment.getItemId(), comment.getTotal());
+            }
+        } else {
+            for (Comment comment : commentRepository.findAllByItemIdIn(itemIds)) {
+                commentsByItem.computeIfAbsent(comment.getItem().getId(), id -> new ArrayList<>())
+                        .add(entityMapper.commentToCommentDto(comment));
+            }
+        }
+        for (ItemDto itemDto : itemDtos) {
+            List<CommentDto> itemComments = commentsByItem.getOrDefault(itemDto.getId(), new ArrayList<>());
+            itemDto.setComments(itemComments);
+            itemDto.setCommentsCount(totals.getOrDefault(itemDto.getId(), (long) itemComments.size()));
+        }
     }
 
     @Transactional(readOnly = true)
@@ -123,14 +170,14 @@ public class ItemServiceImpl implements ItemService {
         Item item = findItem(id);
         log.info("Успешно получена информация о вещи с номером " + id);
         List<Booking> bookings = bookingRepository.findByItemId(id);
-        List<Comment> comments = commentRepository.findAllByItemId(id);
         if (bookings == null) {
-            return Optional.of(setComments(setLastAndNextBooking(item, null),
-                    comments));
+            ItemDto itemDto = setLastAndNextBooking(item, null, LocalDateTime.now());
+            setComments(List.of(itemDto));
+            return Optional.of(itemDto);
         }
         if (!bookings.isEmpty()) {
-            ItemDto itemDto = setComments(setLastAndNextBooking(item, bookings),
-                    comments);
+            ItemDto itemDto = setLastAndNextBooking(item, bookings, LocalDateTime.now());
+            setComments(List.of(itemDto));
             for (Booking booking : bookings) {
                 if (booking.getBooker().getId() == userId) {
                     itemDto.setLastBooking(null);
@@ -145,41 +192,39 @@ public class ItemServiceImpl implements ItemService {
     @Transactional(readOnly = true)
     @Override
     public List<ItemDto> getItems(long userId, Integer from, Integer size) {
+        if (!userRepository.existsById(userId)) {
+            throw new EntityNotFoundException("Внимание! Пользователя с таким номером не существует!");
+        }
         Pageable pageable = PageRequest.of(from, size);
-        List<Item> allItems = itemRepository.findAllByOwnerIdOrderByIdAsc(userId, pageable).getContent();
-        List<Item> itemsWithBookings;
-        List<Booking> bookings;
+        List<Item> items = itemRepository.findAllByOwnerIdOrderByIdAsc(userId, pageable).getContent();
         List<ItemDto> result = new ArrayList<>();
-        if (userRepository.existsById(userId)) {
-            if (!bookingRepository.getAllBookingsInfoByOwner(userId).isEmpty()) {
-                itemsWithBookings = allItems.stream()
-                        .filter(item -> !bookingRepository.findByItemId(item.getId()).isEmpty())
-                        .collect(Collectors.toList());
-                bookings = bookingRepository.findAllByItemInAndStatusOrderByStartAsc(itemsWithBookings, Status.APPROVED);
-            } else {
-                bookings = bookingRepository.findAllByItemInAndStatusOrderByStartAsc(allItems, Status.APPROVED);
-            }
-            List<Comment> comments = commentRepository.findAllByAuthorId(userId);
-            log.info("Успешно получена информация о всех сохранённых вещах!");
-            for (Item item : allItems) {
-                ItemDto itemDto = setLastAndNextBooking(item, bookings);
-                if (bookingRepository.findByItemId(item.getId()).isEmpty()) {
-                    itemDto.setLastBooking(null);
-                    itemDto.setNextBooking(null);
-                }
-                setComments(itemDto, comments);
-                result.add(itemDto);
-            }
+        if (items.isEmpty()) {
             return result;
         }
-        throw new EntityNotFoundException("Внимание! Пользователя с таким номером не существует!");
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, List<Booking>> bookingsByItem = bookingRepository
+                .findLastAndNextBookingsByItemIdIn(itemIds, Status.APPROVED, now).stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        log.info("Успешно получена информация о всех сохранённых вещах!");
+        for (Item item : items) {
+            result.add(setLastAndNextBooking(item, bookingsByItem.get(item.getId()), now));
+        }
+        setComments(result);
+        return result;
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.ITEMS)
     public void deleteItem(long id) {
         if (itemRepository.existsById(id)) {
             log.info("Информация о вещи с номером " + id + " успешно удалена!");
             itemRepository.deleteById(id);
+            itemRepository.flush();
+            itemSearchIndex.remove(id);
+            bookingOccupancyIndex.removeItem(id);
         } else {
             throw new EntityNotFoundException("Внимание! Вещи с таким номером не существует!");
         }
@@ -188,18 +233,87 @@ public class ItemServiceImpl implements ItemService {
     @Transactional(readOnly = true)
     @Override
     public List<ItemDto> searchItem(String text, Integer from, Integer size) {
+        return searchItem(text, from, size, null, null);
+    }
+
+    /**
+     * Поиск вещей по тексту; если задан период, возвращаются только вещи без одобренных бронирований,
+     * пересекающих его. Занятость проверяется по {@link BookingOccupancyIndex} до ранжирования, а если
+     * какой-то из индексов не готов — в самом запросе к БД через NOT EXISTS, поэтому страницы в обоих
+     * случаях составляются из уже отобранных вещей.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public List<ItemDto> searchItem(String text, Integer from, Integer size, LocalDateTime start,
+                                    LocalDateTime end) {
         if (text == null || text.isEmpty() || text.isBlank()) {
             log.info("Описание вещи не указано.");
             return new ArrayList<>();
         }
-        Pageable pageable = PageRequest.of(from, size);
+        boolean withPeriod = start != null || end != null;
+        if (withPeriod && (start == null || end == null || !start.isBefore(end))) {
+            throw new ValidationException("Внимание! Для поиска свободных вещей нужно указать начало и конец " +
+                    "периода, начало должно быть раньше конца!");
+        }
         log.info("Успешно получена информация о вещи по её описанию!");
-        return itemRepository.searchByTextLikePage(text, pageable)
-                .getContent().stream()
-                .filter(Item::getAvailable)
+        Optional<List<Long>> rankedIds = Optional.empty();
+        if (!withPeriod) {
+            rankedIds = itemSearchIndex.search(text, from, size);
+        } else if (bookingOccupancyIndex.isReady()) {
+            rankedIds = itemSearchIndex.search(text, from, size,
+                    itemId -> bookingOccupancyIndex.isFree(itemId, start, end));
+        }
+        if (rankedIds.isPresent()) {
+            Map<Long, Item> itemsById = itemRepository.findAllById(rankedIds.get()).stream()
+                    .collect(Collectors.toMap(Item::getId, Function.identity()));
+            List<ItemDto> result = new ArrayList<>();
+            for (Long id : rankedIds.get()) {
+                Item item = itemsById.get(id);
+                if (item == null) {
+                    itemSearchIndex.remove(id);
+                } else if (item.getAvailable()) {
+                    result.add(entityMapper.itemToItemDto(item));
+                }
+            }
+            return result;
+        }
+        Pageable pageable = PageRequest.of(from, size);
+        Page<Item> page = withPeriod
+                ? itemRepository.searchFreeByTextLikePage(text, start, end, Status.APPROVED, pageable)
+                : itemRepository.searchByTextLikePage(text, pageable);
+        return page.getContent().stream()
                 .map(entityMapper::itemToItemDto).collect(Collectors.toList());
     }
 
+    /**
+     * Занятые и свободные периоды вещи в окне {@code [from, to)}. Занятость берётся из
+     * {@link BookingOccupancyIndex}, а пока он не готов — одним запросом одобренных бронирований вещи.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public ItemAvailabilityDto getAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Внимание! Начало периода должно быть раньше его окончания!");
+        }
+        findItem(itemId);
+        List<AvailabilityIntervalDto> busy = bookingOccupancyIndex.findBusy(itemId, from, to)
+                .orElseGet(() -> BookingOccupancyIndex.mergeBusy(bookingRepository
+                        .findAllByItemIdAndStatusAndStartBeforeAndEndAfterOrderByStartAsc(itemId, Status.APPROVED,
+                                to, from), from, to));
+        List<AvailabilityIntervalDto> free = new ArrayList<>();
+        LocalDateTime freeFrom = from;
+        for (AvailabilityIntervalDto interval : busy) {
+            if (freeFrom.isBefore(interval.getStart())) {
+                free.add(new AvailabilityIntervalDto(freeFrom, interval.getStart()));
+            }
+            freeFrom = interval.getEnd();
+        }
+        if (freeFrom.isBefore(to)) {
+            free.add(new AvailabilityIntervalDto(freeFrom, to));
+        }
+        return new ItemAvailabilityDto(itemId, from, to, busy, free);
+    }
+
     @Override
     public CommentDto addComment(CommentDto commentDto, long itemId, long userId) {
         if (userRepository.existsById(userId) && getItem(itemId, userId).isPresent()) {
@@ -225,4 +339,22 @@ public class ItemServiceImpl implements ItemService {
         }
         throw new EntityNotFoundException("Внимание! Пользователя или вещи с таким номером не существует!");
     }
+
+    /**
+     * Отзывы вещи от новых к старым страницами по size. Курсор after — дата и номер последнего отзыва
+     * предыдущей страницы, без него возвращается первая страница.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public List<CommentDto> getComments(long itemId, Cursor after, Integer size) {
+        findItem(itemId);
+        Pageable pageable = PageRequest.of(0, size);
+        List<Comment> comments = after == null
+                ? commentRepository.findPageByItemId(itemId, pageable)
+                : commentRepository.findPageByItemIdAfter(itemId, after.getTimestamp(), after.getId(), pageable);
+        log.info("Успешно получены отзывы о вещи с номером " + itemId);
+        return comments.stream()
+                .map(entityMapper::commentToCommentDto)
+                .collect(Collectors.toList());
+    }
 }
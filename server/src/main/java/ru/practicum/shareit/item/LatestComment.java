@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item;
+
+import java.time.LocalDateTime;
+
+/**
+ * Строка выборки {@link CommentRepository#findLatestByItemIdIn}: отзыв вместе с именем автора
+ * и общим числом отзывов его вещи.
+ */
+public interface LatestComment {
+
+    Long getCommentId();
+
+    Long getItemId();
+
+    String getText();
+
+    String getAuthorName();
+
+    LocalDateTime getCreated();
+
+    Long getTotal();
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class AvailabilityIntervalDto {
+    private LocalDateTime start;
+    private LocalDateTime end;
+}
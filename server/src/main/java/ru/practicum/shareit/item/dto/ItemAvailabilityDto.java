@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Календарь вещи в окне {@code [from, to)}: занятые одобренными бронированиями периоды
+ * и свободные промежутки между ними.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ItemAvailabilityDto {
+    private Long itemId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<AvailabilityIntervalDto> busy;
+    private List<AvailabilityIntervalDto> free;
+}
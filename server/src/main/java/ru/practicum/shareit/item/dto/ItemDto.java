@@ -25,6 +25,7 @@ public class ItemDto {
     private NextBooking nextBooking;
     private List<CommentDto> comments;
     private Long requestId;
+    private Long commentsCount;
 
     public ItemDto(Long id, String name, String description, Boolean available) {
         this.id = id;
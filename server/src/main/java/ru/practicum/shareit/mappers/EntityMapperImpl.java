@@ -25,8 +25,13 @@ public class EntityMapperImpl implements EntityMapper {
         booking.setId(bookingDto.getId());
         booking.setStart(bookingDto.getStart());
         booking.setEnd(bookingDto.getEnd());
-        booking.setItem(bookingDto.getItem());
-        booking.setBooker(bookingDto.getBooker());
+        if (bookingDto.getItem() != null) {
+            booking.setItem(itemDtoToItem(bookingDto.getItem()));
+        }
+        if (bookingDto.getBooker() != null) {
+            booking.setBooker(userDtoToUser(bookingDto.getBooker()));
+        }
+        booking.setStatus(bookingDto.getStatus());
         return booking;
     }
 
@@ -50,8 +55,11 @@ public class EntityMapperImpl implements EntityMapper {
         bookingDto.setId(booking.getId());
         bookingDto.setStart(booking.getStart());
         bookingDto.setEnd(booking.getEnd());
-        bookingDto.setItem(booking.getItem());
-        bookingDto.setBooker(booking.getBooker());
+        bookingDto.setItem(itemToItemDto(booking.getItem()));
+        if (booking.getBooker() != null) {
+            bookingDto.setBooker(userToUserDto(booking.getBooker()));
+        }
+        bookingDto.setStatus(booking.getStatus());
         return bookingDto;
     }
 
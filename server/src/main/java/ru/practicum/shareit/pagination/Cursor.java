@@ -0,0 +1,43 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Позиция постраничного вывода по ключу (дата, номер): следующая страница начинается
+ * сразу после записи с этими значениями. В запросах и заголовке ответа передаётся
+ * строкой вида {@code 2024-05-25T20:30:00,15}.
+ */
+@Getter
+@EqualsAndHashCode
+@AllArgsConstructor(staticName = "of")
+public class Cursor {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private final LocalDateTime timestamp;
+    private final long id;
+
+    public static Cursor parse(String value) {
+        int separator = value == null ? -1 : value.lastIndexOf(',');
+        if (separator < 0) {
+            throw new ValidationException("Внимание! Передан неверный курсор постраничного вывода: " + value);
+        }
+        try {
+            return new Cursor(LocalDateTime.parse(value.substring(0, separator).trim()),
+                    Long.parseLong(value.substring(separator + 1).trim()));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new ValidationException("Внимание! Передан неверный курсор постраничного вывода: " + value);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return timestamp + "," + id;
+    }
+}
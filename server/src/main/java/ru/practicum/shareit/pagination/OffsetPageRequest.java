@@ -0,0 +1,79 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.EqualsAndHashCode;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Страница, начинающаяся с произвольной записи {@code from}, а не с номера страницы:
+ * {@link org.springframework.data.domain.PageRequest} умеет только смещения, кратные размеру.
+ */
+@EqualsAndHashCode
+public class OffsetPageRequest implements Pageable {
+
+    private final long offset;
+    private final int size;
+    private final Sort sort;
+
+    private OffsetPageRequest(long offset, int size, Sort sort) {
+        this.offset = offset;
+        this.size = size;
+        this.sort = sort;
+    }
+
+    public static OffsetPageRequest of(long from, int size, Sort sort) {
+        if (from < 0 || size < 1) {
+            throw new IllegalArgumentException("Внимание! Передано неверное значение from или/и size");
+        }
+        return new OffsetPageRequest(from, size, sort);
+    }
+
+    public static OffsetPageRequest of(long from, int size) {
+        return of(from, size, Sort.unsorted());
+    }
+
+    @Override
+    public int getPageNumber() {
+        return (int) (offset / size);
+    }
+
+    @Override
+    public int getPageSize() {
+        return size;
+    }
+
+    @Override
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public Sort getSort() {
+        return sort;
+    }
+
+    @Override
+    public Pageable next() {
+        return new OffsetPageRequest(offset + size, size, sort);
+    }
+
+    @Override
+    public Pageable previousOrFirst() {
+        return hasPrevious() ? new OffsetPageRequest(Math.max(offset - size, 0), size, sort) : first();
+    }
+
+    @Override
+    public Pageable first() {
+        return new OffsetPageRequest(0, size, sort);
+    }
+
+    @Override
+    public Pageable withPage(int pageNumber) {
+        return new OffsetPageRequest((long) pageNumber * size, size, sort);
+    }
+
+    @Override
+    public boolean hasPrevious() {
+        return offset > 0;
+    }
+}
@@ -1,7 +1,9 @@
 package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.List;
@@ -35,9 +37,18 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDto> getAllRequests(@RequestHeader("X-Sharer-User-Id") long userId,
-                                               @RequestParam Integer from,
-                                               @RequestParam Integer size) {
-        return requestService.getOthersRequests(userId, from, size);
+    public ResponseEntity<List<ItemRequestDto>> getAllRequests(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                               @RequestParam Integer from,
+                                                               @RequestParam Integer size,
+                                                               @RequestParam(required = false) String after) {
+        List<ItemRequestDto> requests = after == null
+                ? requestService.getOthersRequests(userId, from, size)
+                : requestService.getOthersRequestsAfter(userId, Cursor.parse(after), size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!requests.isEmpty() && requests.size() == size) {
+            ItemRequestDto last = requests.get(requests.size() - 1);
+            response.header(Cursor.NEXT_CURSOR_HEADER, Cursor.of(last.getCreated(), last.getId()).toString());
+        }
+        return response.body(requests);
     }
 }
@@ -1,10 +1,24 @@
 package ru.practicum.shareit.request;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface RequestRepository extends JpaRepository<ItemRequest, Long> {
 
     List<ItemRequest> findAllByRequesterIdOrderByCreatedDesc(long requesterId);
+
+    List<ItemRequest> findAllByRequesterIdNot(long requesterId, Pageable pageable);
+
+    @Query("SELECT r " +
+            "FROM ItemRequest r " +
+            "WHERE r.requester.id <> ?1 " +
+            "AND (r.created < ?2 " +
+            "OR r.created = ?2 AND r.id < ?3) " +
+            "ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequest> findAllByRequesterIdNotAfter(long requesterId, LocalDateTime created, long id,
+                                                   Pageable pageable);
 }
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request;
 
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.List;
@@ -15,5 +16,7 @@ public interface RequestService {
 
     List<ItemRequestDto> getOthersRequests(long userId, Integer from, Integer size);
 
+    List<ItemRequestDto> getOthersRequestsAfter(long userId, Cursor after, Integer size);
+
     void removeRequest(long userId, long requestId);
 }
@@ -2,21 +2,30 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingOccupancyIndex;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.ItemRepository;
-import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.ItemSearchIndex;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.mappers.EntityMapper;
 import ru.practicum.shareit.mappers.RequestMapper;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.user.UserServiceImpl;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -26,12 +35,16 @@ import java.util.stream.Collectors;
 @Transactional
 public class RequestServiceImpl implements RequestService {
 
+    private static final Sort SORT_BY_CREATED_DESC = Sort.by(Sort.Direction.DESC, "created")
+            .and(Sort.by(Sort.Direction.DESC, "id"));
+
     private final RequestRepository requestRepository;
     private final RequestMapper requestMapper;
     private final UserServiceImpl userService;
-    private final ItemService itemService;
     private final ItemRepository itemRepository;
     private final EntityMapper entityMapper;
+    private final BookingOccupancyIndex bookingOccupancyIndex;
+    private final ItemSearchIndex itemSearchIndex;
 
     @Override
     public ItemRequestDto addRequest(long userId, ItemRequestDto itemRequestDto) {
@@ -47,7 +60,6 @@ public class RequestServiceImpl implements RequestService {
     public Optional<ItemRequestDto> getItemRequest(long userId, long requestId) {
         userService.findUser(userId);
         ItemRequest itemRequest = findRequest(requestId);
-        setItemsToRequest(List.of(itemRequest));
         log.info("Успешно получена информация о выбранном запросе!");
         return Optional.of(setItemsToRequest(List.of(itemRequest)).get(0));
     }
@@ -58,27 +70,26 @@ public class RequestServiceImpl implements RequestService {
     }
 
     private List<ItemRequestDto> setItemsToRequest(List<ItemRequest> requests) {
-        List<ItemRequestDto> result = requests.stream()
-                .map(requestMapper::requestToRequestDto)
+        if (requests.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> requestIds = requests.stream()
+                .map(ItemRequest::getId)
                 .collect(Collectors.toList());
-        List<ItemDto> allItems = itemRepository.findAll().stream()
-                .map(entityMapper::itemToItemDto)
+        Map<Long, List<ItemDto>> itemsByRequest = itemRepository.findAllByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId(),
+                        Collectors.mapping(item -> {
+                            ItemDto itemDto = entityMapper.itemToItemDto(item);
+                            itemDto.setRequestId(item.getRequest().getId());
+                            return itemDto;
+                        }, Collectors.toList())));
+        return requests.stream()
+                .map(itemRequest -> {
+                    ItemRequestDto itemRequestDto = requestMapper.requestToRequestDto(itemRequest);
+                    itemRequestDto.setItems(itemsByRequest.getOrDefault(itemRequest.getId(), new ArrayList<>()));
+                    return itemRequestDto;
+                })
                 .collect(Collectors.toList());
-        for (ItemRequestDto itemRequestDto : result) {
-            for (ItemDto itemDto : allItems) {
-                String commonPart = itemDto.getName().toLowerCase().substring(0, 4);
-                if (itemRequestDto.getDescription().contains(commonPart)) {
-                    itemRequestDto.setItems(itemService.searchItem(commonPart, 0, 20));
-                    for (ItemDto requestsItem : itemRequestDto.getItems()) {
-                        requestsItem.setRequestId(itemRequestDto.getId());
-                    }
-                    break;
-                } else {
-                    itemRequestDto.setItems(new ArrayList<>());
-                }
-            }
-        }
-        return result;
     }
 
     @Override
@@ -92,24 +103,42 @@ public class RequestServiceImpl implements RequestService {
     @Override
     @Transactional(readOnly = true)
     public List<ItemRequestDto> getOthersRequests(long userId, Integer from, Integer size) {
-        if ((from < 0 || size < 0) || (from == 0 && size == 0)) {
-            throw new IllegalArgumentException("Внимание! Передано неверное значение from или/и size");
-        }
-        List<ItemRequest> othersRequests = requestRepository.findAll().stream()
-                .filter(itemRequest -> itemRequest.getRequester().getId() != userId)
-                .collect(Collectors.toList());
+        validatePageParameters(from, size);
+        Pageable pageable = OffsetPageRequest.of(from, size, SORT_BY_CREATED_DESC);
+        List<ItemRequest> othersRequests = requestRepository.findAllByRequesterIdNot(userId, pageable);
+        log.info("Успешно получена информация о запросах, созданных другими пользователями!");
+        return setItemsToRequest(othersRequests);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemRequestDto> getOthersRequestsAfter(long userId, Cursor after, Integer size) {
+        validatePageParameters(0, size);
+        List<ItemRequest> othersRequests = requestRepository.findAllByRequesterIdNotAfter(userId,
+                after.getTimestamp(), after.getId(), PageRequest.ofSize(size));
         log.info("Успешно получена информация о запросах, созданных другими пользователями!");
         return setItemsToRequest(othersRequests);
     }
 
+    private void validatePageParameters(Integer from, Integer size) {
+        if (from < 0 || size < 1) {
+            throw new IllegalArgumentException("Внимание! Передано неверное значение from или/и size");
+        }
+    }
+
     @Override
+    @CacheEvict(cacheNames = CacheConfig.ITEMS, allEntries = true)
     public void removeRequest(long userId, long requestId) {
         ItemRequest itemRequest = findRequest(requestId);
         userService.findUser(userId);
         if (itemRequest.getRequester().getId() != userId) {
             throw new ValidationException("Внимание! Только пользователь, создавший запрос, может его удалить!");
         }
+        List<Long> itemIds = itemRepository.findIdsByRequestId(requestId);
         log.info("Успешно удалена информация о выбранном запросе!");
         requestRepository.delete(itemRequest);
+        requestRepository.flush();
+        itemIds.forEach(bookingOccupancyIndex::removeItem);
+        itemIds.forEach(itemSearchIndex::remove);
     }
 }
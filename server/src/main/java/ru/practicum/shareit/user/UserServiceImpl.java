@@ -2,10 +2,18 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
+import ru.practicum.shareit.booking.BookingOccupancyIndex;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemSearchIndex;
 import ru.practicum.shareit.mappers.EntityMapper;
 import ru.practicum.shareit.user.dto.UserDto;
 
@@ -20,6 +28,9 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final EntityMapper entityMapper;
+    private final BookingOccupancyIndex bookingOccupancyIndex;
+    private final ItemRepository itemRepository;
+    private final ItemSearchIndex itemSearchIndex;
 
     @Transactional
     @Override
@@ -30,6 +41,7 @@ public class UserServiceImpl implements UserService {
 
     @Transactional
     @Override
+    @CachePut(cacheNames = CacheConfig.USERS, key = "#id")
     public User updateUser(UserDto userDto, long id) {
         User user = findUser(id);
         if (userDto.getName() == null) {
@@ -43,6 +55,7 @@ public class UserServiceImpl implements UserService {
         return userRepository.save(entityMapper.userDtoToUser(userDto));
     }
 
+    @Cacheable(cacheNames = CacheConfig.USERS)
     public User findUser(long id) {
         return userRepository.findById(id).orElseThrow(() ->
                 new EntityNotFoundException("Внимание! Пользователя с таким номером не существует!"));
@@ -50,12 +63,11 @@ public class UserServiceImpl implements UserService {
 
     @Transactional(readOnly = true)
     @Override
+    @Cacheable(cacheNames = CacheConfig.USERS)
     public Optional<User> getUser(long id) {
-        if (userRepository.existsById(id)) {
-            log.info("Информация о пользователе " + id + " успешно получена!");
-            return userRepository.findById(id);
-        }
-        throw new EntityNotFoundException("Внимание! Пользователя с таким номером не существует!");
+        User user = findUser(id);
+        log.info("Информация о пользователе " + id + " успешно получена!");
+        return Optional.of(user);
     }
 
     @Transactional(readOnly = true)
@@ -67,8 +79,17 @@ public class UserServiceImpl implements UserService {
 
     @Transactional
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USERS),
+            @CacheEvict(cacheNames = CacheConfig.ITEMS, allEntries = true)
+    })
     public void deleteUser(long id) {
+        List<Long> itemIds = itemRepository.findIdsByOwnerIdOrRequesterId(id);
         log.info("Информация о пользователе " + id + " успешно удалена!");
         userRepository.deleteById(id);
+        userRepository.flush();
+        bookingOccupancyIndex.removeBooker(id);
+        itemIds.forEach(bookingOccupancyIndex::removeItem);
+        itemIds.forEach(itemSearchIndex::remove);
     }
 }
@@ -1,10 +1,4 @@
-DROP TABLE IF EXISTS bookings;
-DROP TABLE IF EXISTS comments;
-DROP TABLE IF EXISTS items;
-DROP TABLE IF EXISTS item_requests;
-DROP TABLE IF EXISTS users;
-
-CREATE TABLE IF NOT EXISTS users
+CREATE TABLE users
 (
 user_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
 name varchar(30) NOT NULL,
@@ -12,7 +6,7 @@ email varchar(50) NOT NULL,
 CONSTRAINT email_is_unique UNIQUE(email)
 );
 
-CREATE TABLE IF NOT EXISTS item_requests
+CREATE TABLE item_requests
 (
 request_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
 description varchar NOT NULL,
@@ -20,7 +14,7 @@ user_id BIGINT REFERENCES users(user_id) ON DELETE CASCADE,
 created TIMESTAMP WITHOUT TIME ZONE NOT NULL
 );
 
-CREATE TABLE IF NOT EXISTS items
+CREATE TABLE items
 (
 item_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
 name varchar(30) NOT NULL,
@@ -30,7 +24,7 @@ available BOOLEAN NOT NULL,
 request_id BIGINT REFERENCES item_requests(request_id) ON DELETE CASCADE
 );
 
-CREATE TABLE IF NOT EXISTS comments
+CREATE TABLE comments
 (
 comment_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
 text varchar NOT NULL,
@@ -39,7 +33,7 @@ user_id BIGINT REFERENCES users(user_id) ON DELETE CASCADE,
 created TIMESTAMP WITHOUT TIME ZONE NOT NULL
 );
 
-CREATE TABLE IF NOT EXISTS bookings
+CREATE TABLE bookings
 (
 booking_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
 start_of_booking TIMESTAMP WITHOUT TIME ZONE NOT NULL,
@@ -47,4 +41,4 @@ end_of_booking TIMESTAMP WITHOUT TIME ZONE NOT NULL,
 item_id BIGINT REFERENCES items(item_id) ON DELETE CASCADE,
 user_id BIGINT REFERENCES users(user_id) ON DELETE CASCADE,
 status varchar(15) NOT NULL
-);
\ No newline at end of file
+);
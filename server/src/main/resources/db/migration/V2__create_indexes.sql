@@ -0,0 +1,13 @@
+CREATE INDEX bookings_item_id_status_start_idx ON bookings (item_id, status, start_of_booking);
+
+CREATE INDEX bookings_user_id_start_idx ON bookings (user_id, start_of_booking DESC, booking_id DESC);
+
+CREATE INDEX items_user_id_idx ON items (user_id, item_id);
+
+CREATE INDEX items_request_id_idx ON items (request_id);
+
+CREATE INDEX comments_item_id_created_idx ON comments (item_id, created);
+
+CREATE INDEX item_requests_user_id_created_idx ON item_requests (user_id, created DESC);
+
+CREATE INDEX item_requests_created_idx ON item_requests (created DESC, request_id DESC);
@@ -0,0 +1,3 @@
+DROP INDEX comments_item_id_created_idx;
+
+CREATE INDEX comments_item_id_created_id_idx ON comments (item_id, created DESC, comment_id DESC);
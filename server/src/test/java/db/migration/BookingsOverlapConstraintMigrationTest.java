@@ -0,0 +1,60 @@
+package db.migration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.test.context.ContextConfiguration;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.user.User;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ContextConfiguration(classes = ShareItServer.class)
+class BookingsOverlapConstraintMigrationTest {
+
+    @Autowired
+    TestEntityManager em;
+    @Autowired
+    DataSource dataSource;
+
+    private Booking approved(Item item, User booker, LocalDateTime start, int hours) {
+        return em.persist(new Booking(null, start, start.plusHours(hours), item, booker, Status.APPROVED));
+    }
+
+    @Test
+    public void laterOverlappingApprovalsShouldBeRejectedBeforeConstraintIsAdded() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1L);
+        User user = em.persist(new User(null, "user", "user@user.com"));
+        Item item = new Item(null, "Дрель", "Простая дрель", true);
+        item.setOwner(user);
+        em.persist(item);
+        Item otherItem = new Item(null, "Стол", "Кухонный стол", true);
+        otherItem.setOwner(user);
+        em.persist(otherItem);
+        Booking first = approved(item, user, start, 10);
+        Booking overlapping = approved(item, user, start.plusHours(5), 10);
+        Booking afterRejected = approved(item, user, start.plusHours(12), 2);
+        Booking adjacent = approved(item, user, start.plusHours(10), 1);
+        Booking otherItemBooking = approved(otherItem, user, start, 10);
+        em.flush();
+
+        assertThat(V5__create_bookings_overlap_constraint.rejectOverlappingApprovals(
+                DataSourceUtils.getConnection(dataSource)))
+                .containsExactly(overlapping.getId());
+        em.clear();
+        assertThat(em.find(Booking.class, overlapping.getId()).getStatus()).isEqualTo(Status.REJECTED);
+        assertThat(em.find(Booking.class, first.getId()).getStatus()).isEqualTo(Status.APPROVED);
+        assertThat(em.find(Booking.class, afterRejected.getId()).getStatus()).isEqualTo(Status.APPROVED);
+        assertThat(em.find(Booking.class, adjacent.getId()).getStatus()).isEqualTo(Status.APPROVED);
+        assertThat(em.find(Booking.class, otherItemBooking.getId()).getStatus()).isEqualTo(Status.APPROVED);
+    }
+}
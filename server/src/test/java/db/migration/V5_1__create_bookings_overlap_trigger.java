@@ -0,0 +1,57 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.h2.tools.TriggerAdapter;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Тестовая замена исключающего ограничения из V5 для H2, в которой таких ограничений нет. Триггер
+ * блокирует строку вещи, чтобы дождаться параллельного одобрения, поэтому тесты на H2 проверяют
+ * обработку нарушения ограничения, но не само ограничение PostgreSQL.
+ */
+public class V5_1__create_bookings_overlap_trigger extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        try (Statement statement = context.getConnection().createStatement()) {
+            statement.execute("CREATE TRIGGER " + V5__create_bookings_overlap_constraint.CONSTRAINT_NAME +
+                    " BEFORE UPDATE ON bookings FOR EACH ROW CALL \"" + ApprovedOverlapTrigger.class.getName() + "\"");
+        }
+    }
+
+    public static class ApprovedOverlapTrigger extends TriggerAdapter {
+
+        @Override
+        public void fire(Connection connection, ResultSet oldRow, ResultSet newRow) throws SQLException {
+            if (!"APPROVED".equals(newRow.getString("status")) || "APPROVED".equals(oldRow.getString("status"))) {
+                return;
+            }
+            long itemId = newRow.getLong("item_id");
+            try (PreparedStatement lock = connection.prepareStatement(
+                    "SELECT item_id FROM items WHERE item_id = ? FOR UPDATE")) {
+                lock.setLong(1, itemId);
+                lock.executeQuery().close();
+            }
+            try (PreparedStatement overlap = connection.prepareStatement("SELECT booking_id FROM bookings " +
+                    "WHERE item_id = ? AND status = 'APPROVED' AND start_of_booking < ? AND end_of_booking > ? " +
+                    "AND booking_id <> ?")) {
+                overlap.setLong(1, itemId);
+                overlap.setTimestamp(2, newRow.getTimestamp("end_of_booking"));
+                overlap.setTimestamp(3, newRow.getTimestamp("start_of_booking"));
+                overlap.setLong(4, newRow.getLong("booking_id"));
+                try (ResultSet resultSet = overlap.executeQuery()) {
+                    if (resultSet.next()) {
+                        throw new SQLException("Нарушено ограничение " +
+                                V5__create_bookings_overlap_constraint.CONSTRAINT_NAME, "23P01");
+                    }
+                }
+            }
+        }
+    }
+}
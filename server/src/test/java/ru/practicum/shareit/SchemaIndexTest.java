@@ -0,0 +1,108 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * H2 сам создаёт индексы под внешние ключи и при равной стоимости выбирает их, поэтому для
+ * запросов по одному столбцу проверяется только отсутствие полного просмотра таблицы,
+ * а наличие индексов из миграции (нужных PostgreSQL) — отдельно.
+ */
+@DataJpaTest(properties = "db.name=test")
+public class SchemaIndexTest {
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class).toLowerCase();
+    }
+
+    private void fillBookings() {
+        jdbcTemplate.update("INSERT INTO users (user_id, name, email) VALUES (1, 'user1', 'user@user.com')");
+        jdbcTemplate.update("INSERT INTO items (item_id, name, description, user_id, available) " +
+                "VALUES (1, 'Дрель', 'Простая дрель', 1, TRUE), (2, 'Стол', 'Кухонный стол', 1, TRUE)");
+        String[] statuses = {"APPROVED", "WAITING", "REJECTED"};
+        for (int i = 0; i < 300; i++) {
+            jdbcTemplate.update("INSERT INTO bookings (start_of_booking, end_of_booking, item_id, user_id, status) " +
+                            "VALUES (DATEADD('DAY', ?, CURRENT_TIMESTAMP), DATEADD('DAY', ?, CURRENT_TIMESTAMP), ?, 1, ?)",
+                    i - 150, i - 149, i % 2 + 1, statuses[i % 3]);
+        }
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    public void migrationShouldCreateIndexesForHotQueries() {
+        List<String> indexes = jdbcTemplate.queryForList("SELECT LOWER(index_name) " +
+                "FROM information_schema.indexes WHERE table_schema = 'PUBLIC'", String.class);
+
+        assertThat(indexes).contains(
+                "bookings_item_id_status_start_idx",
+                "bookings_user_id_start_idx",
+                "items_user_id_idx",
+                "items_request_id_idx",
+                "comments_item_id_created_id_idx",
+                "item_requests_user_id_created_idx",
+                "item_requests_created_idx");
+    }
+
+    @Test
+    public void lastAndNextBookingLookupShouldUseItemStatusStartIndex() {
+        fillBookings();
+
+        assertThat(explain("SELECT MAX(start_of_booking) FROM bookings " +
+                "WHERE item_id = 1 AND status = 'APPROVED' AND start_of_booking < CURRENT_TIMESTAMP"))
+                .contains("bookings_item_id_status_start_idx");
+    }
+
+    @Test
+    public void bookerBookingsShouldNotScanWholeTable() {
+        assertThat(explain("SELECT * FROM bookings WHERE user_id = 1 " +
+                "ORDER BY start_of_booking DESC, booking_id DESC LIMIT 20"))
+                .contains("user_id = ")
+                .doesNotContain("tablescan");
+    }
+
+    @Test
+    public void ownerItemsShouldNotScanWholeTable() {
+        assertThat(explain("SELECT * FROM items WHERE user_id = 1 ORDER BY item_id"))
+                .contains("user_id = ")
+                .doesNotContain("tablescan");
+    }
+
+    @Test
+    public void requestItemsShouldNotScanWholeTable() {
+        assertThat(explain("SELECT * FROM items WHERE request_id IN (1, 2, 3)"))
+                .contains("request_id in")
+                .doesNotContain("tablescan");
+    }
+
+    @Test
+    public void itemCommentsShouldNotScanWholeTable() {
+        assertThat(explain("SELECT * FROM comments WHERE item_id IN (1, 2, 3)"))
+                .contains("item_id in")
+                .doesNotContain("tablescan");
+    }
+
+    @Test
+    public void itemCommentsPageShouldNotScanWholeTable() {
+        assertThat(explain("SELECT * FROM comments WHERE item_id = 1 " +
+                "AND (created < CURRENT_TIMESTAMP OR (created = CURRENT_TIMESTAMP AND comment_id < 10)) " +
+                "ORDER BY created DESC, comment_id DESC LIMIT 20"))
+                .contains("item_id = ")
+                .doesNotContain("tablescan");
+    }
+
+    @Test
+    public void ownRequestsShouldNotScanWholeTable() {
+        assertThat(explain("SELECT * FROM item_requests WHERE user_id = 1 ORDER BY created DESC"))
+                .contains("user_id = ")
+                .doesNotContain("tablescan");
+    }
+}
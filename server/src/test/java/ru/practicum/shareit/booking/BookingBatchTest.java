@@ -0,0 +1,272 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.ShortBookingDto;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class BookingBatchTest {
+
+    @Autowired
+    MockMvc mvc;
+    @Autowired
+    ObjectMapper mapper;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @SpyBean
+    BookingRepository bookingRepository;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    Statistics statistics;
+    LocalDateTime start = LocalDateTime.now().plusDays(1L);
+
+    @BeforeEach
+    public void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private User createUser(String name) {
+        return userRepository.save(new User(null, name, name + System.nanoTime() + "@user.com"));
+    }
+
+    private Item createItem(User owner) {
+        Item item = new Item(null, "Дрель", "Простая дрель", true);
+        item.setOwner(owner);
+        return itemRepository.save(item);
+    }
+
+    private long countStatementsOfBatch(User booker, Item item, int size) throws Exception {
+        List<ShortBookingDto> batch = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            batch.add(new ShortBookingDto(item.getId(), start.plusDays(i), start.plusDays(i).plusHours(1L)));
+        }
+        statistics.clear();
+        mvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .content(mapper.writeValueAsString(batch))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(size)))
+                .andExpect(jsonPath("$[" + (size - 1) + "].status").value(200));
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    public void batchCreationShouldNotDependOnBatchSize() throws Exception {
+        User owner = createUser("owner");
+        User booker = createUser("booker");
+        Item item = createItem(owner);
+
+        long smallBatchStatements = countStatementsOfBatch(booker, item, 2);
+        long largeBatchStatements = countStatementsOfBatch(booker, item, 40);
+
+        assertThat(largeBatchStatements)
+                .isLessThanOrEqualTo(smallBatchStatements)
+                .isLessThanOrEqualTo(5);
+        assertThat(bookingRepository.findByItemId(item.getId())).hasSize(42);
+    }
+
+    @Test
+    public void batchCreationShouldReturnResultForEveryEntry() throws Exception {
+        User owner = createUser("owner");
+        User booker = createUser("booker");
+        Item item = createItem(owner);
+        Item ownItem = createItem(booker);
+        List<ShortBookingDto> batch = List.of(
+                new ShortBookingDto(item.getId(), start, start.plusDays(1L)),
+                new ShortBookingDto(Long.MAX_VALUE, start, start.plusDays(1L)),
+                new ShortBookingDto(ownItem.getId(), start, start.plusDays(1L)),
+                new ShortBookingDto(item.getId(), start, start));
+
+        mvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .content(mapper.writeValueAsString(batch))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(4)))
+                .andExpect(jsonPath("$[0].status").value(200))
+                .andExpect(jsonPath("$[0].booking.status").value("WAITING"))
+                .andExpect(jsonPath("$[0].booking.booker.id").value(booker.getId()))
+                .andExpect(jsonPath("$[1].status").value(404))
+                .andExpect(jsonPath("$[2].status").value(404))
+                .andExpect(jsonPath("$[3].index").value(3))
+                .andExpect(jsonPath("$[3].status").value(400))
+                .andExpect(jsonPath("$[3].error").exists());
+
+        assertThat(bookingRepository.findByItemId(item.getId())).hasSize(1);
+        assertThat(bookingRepository.findByItemId(ownItem.getId())).isEmpty();
+    }
+
+    @Test
+    public void batchApprovalShouldRejectOverlapWithinBatch() throws Exception {
+        User owner = createUser("owner");
+        User booker = createUser("booker");
+        Item item = createItem(owner);
+        Item foreignItem = createItem(booker);
+        Booking first = bookingRepository.save(new Booking(null, start, start.plusDays(2L), item, booker,
+                Status.WAITING));
+        Booking overlapping = bookingRepository.save(new Booking(null, start.plusDays(1L), start.plusDays(3L),
+                item, booker, Status.WAITING));
+        Booking rejected = bookingRepository.save(new Booking(null, start.plusDays(5L), start.plusDays(6L),
+                item, booker, Status.WAITING));
+        Booking foreign = bookingRepository.save(new Booking(null, start, start.plusDays(1L), foreignItem, owner,
+                Status.WAITING));
+        List<BookingApprovalDto> batch = List.of(
+                new BookingApprovalDto(first.getId(), true),
+                new BookingApprovalDto(overlapping.getId(), true),
+                new BookingApprovalDto(rejected.getId(), false),
+                new BookingApprovalDto(foreign.getId(), true),
+                new BookingApprovalDto(rejected.getId(), false));
+
+        statistics.clear();
+        mvc.perform(patch("/bookings/batch")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .content(mapper.writeValueAsString(batch))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(5)))
+                .andExpect(jsonPath("$[0].status").value(200))
+                .andExpect(jsonPath("$[0].booking.status").value("APPROVED"))
+                .andExpect(jsonPath("$[1].status").value(409))
+                .andExpect(jsonPath("$[2].booking.status").value("REJECTED"))
+                .andExpect(jsonPath("$[3].status").value(404))
+                .andExpect(jsonPath("$[4].status").value(400));
+
+        assertThat(statistics.getEntityUpdateCount()).isZero();
+
+        assertThat(bookingRepository.findById(first.getId()))
+                .hasValueSatisfying(booking -> assertThat(booking.getStatus()).isEqualTo(Status.APPROVED));
+        assertThat(bookingRepository.findById(overlapping.getId()))
+                .hasValueSatisfying(booking -> assertThat(booking.getStatus()).isEqualTo(Status.WAITING));
+        assertThat(bookingRepository.findById(rejected.getId()))
+                .hasValueSatisfying(booking -> assertThat(booking.getStatus()).isEqualTo(Status.REJECTED));
+        assertThat(bookingRepository.findById(foreign.getId()))
+                .hasValueSatisfying(booking -> assertThat(booking.getStatus()).isEqualTo(Status.WAITING));
+    }
+
+    @Test
+    public void constraintViolationShouldFailWholeBatchWithoutSavingIt() throws Exception {
+        User owner = createUser("owner");
+        User booker = createUser("booker");
+        Item item = createItem(owner);
+        Booking approved = bookingRepository.save(new Booking(null, start, start.plusDays(1L), item, booker,
+                Status.WAITING));
+        Booking racing = bookingRepository.save(new Booking(null, start.plusDays(2L), start.plusDays(3L), item,
+                booker, Status.WAITING));
+        doThrow(new DataIntegrityViolationException("bookings_approved_not_overlapping"))
+                .when(bookingRepository).approveIfFree(eq(racing.getId()), anyCollection());
+
+        mvc.perform(patch("/bookings/batch")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .content(mapper.writeValueAsString(List.of(
+                                new BookingApprovalDto(approved.getId(), true),
+                                new BookingApprovalDto(racing.getId(), true))))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict());
+
+        assertThat(bookingRepository.findById(approved.getId())).get()
+                .extracting(Booking::getStatus)
+                .isEqualTo(Status.WAITING);
+    }
+
+    @Test
+    public void rejectionsAndForeignApprovalsShouldNotWaitForItemLock() throws Exception {
+        User owner = createUser("owner");
+        User booker = createUser("booker");
+        Item item = createItem(owner);
+        Booking single = bookingRepository.save(new Booking(null, start, start.plusDays(1L), item, booker,
+                Status.WAITING));
+        Booking batched = bookingRepository.save(new Booking(null, start.plusDays(2L), start.plusDays(3L), item,
+                booker, Status.WAITING));
+        Booking foreign = bookingRepository.save(new Booking(null, start.plusDays(4L), start.plusDays(5L), item,
+                booker, Status.WAITING));
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> lockHolder = executor.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(
+                transactionStatus -> {
+                    itemRepository.findAllByIdInForUpdate(List.of(item.getId()));
+                    locked.countDown();
+                    try {
+                        release.await(10L, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+        assertThat(locked.await(10L, TimeUnit.SECONDS)).isTrue();
+
+        try {
+            assertTimeoutPreemptively(Duration.ofSeconds(5L), () -> {
+                mvc.perform(patch("/bookings/" + single.getId())
+                                .header("X-Sharer-User-Id", owner.getId())
+                                .param("approved", "false"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.status").value("REJECTED"));
+                mvc.perform(patch("/bookings/batch")
+                                .header("X-Sharer-User-Id", owner.getId())
+                                .content(mapper.writeValueAsString(List.of(
+                                        new BookingApprovalDto(batched.getId(), false))))
+                                .contentType(MediaType.APPLICATION_JSON))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$[0].booking.status").value("REJECTED"));
+                mvc.perform(patch("/bookings/batch")
+                                .header("X-Sharer-User-Id", booker.getId())
+                                .content(mapper.writeValueAsString(List.of(
+                                        new BookingApprovalDto(foreign.getId(), true))))
+                                .contentType(MediaType.APPLICATION_JSON))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$[0].status").value(404));
+            });
+        } finally {
+            release.countDown();
+            lockHolder.get(10L, TimeUnit.SECONDS);
+            executor.shutdown();
+        }
+    }
+}
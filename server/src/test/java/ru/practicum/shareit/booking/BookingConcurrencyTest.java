@@ -0,0 +1,122 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class BookingConcurrencyTest {
+
+    private static final int BOOKINGS_COUNT = 200;
+    private static final int THREADS_COUNT = 16;
+
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    UserRepository userRepository;
+
+    @Test
+    public void onlyOneOfOverlappingBookingsShouldBeApproved() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1L);
+        User owner = userRepository.save(new User(null, "owner", "owner" + System.nanoTime() + "@user.com"));
+        User booker = userRepository.save(new User(null, "booker", "booker" + System.nanoTime() + "@user.com"));
+        Item item = new Item(null, "Дрель", "Простая дрель", true);
+        item.setOwner(owner);
+        itemRepository.save(item);
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS_COUNT; i++) {
+            bookingIds.add(bookingRepository.save(new Booking(null, start.plusHours(i % 5),
+                    start.plusHours(10 + i % 5), item, booker, Status.WAITING)).getId());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS_COUNT);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (Long bookingId : bookingIds) {
+            results.add(executor.submit(() -> {
+                startSignal.await();
+                try {
+                    bookingService.updateBooking(bookingId, owner.getId(), "true");
+                    return true;
+                } catch (ConflictException e) {
+                    return false;
+                }
+            }));
+        }
+        startSignal.countDown();
+        int approved = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(30, TimeUnit.SECONDS)) {
+                approved++;
+            }
+        }
+        executor.shutdown();
+
+        assertThat(approved).isEqualTo(1);
+        assertThat(bookingRepository.findAllById(bookingIds))
+                .filteredOn(booking -> booking.getStatus() == Status.APPROVED)
+                .hasSize(1);
+    }
+
+    @Test
+    public void concurrentStatusChangesOfOneBookingShouldApplyOnce() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1L);
+        User owner = userRepository.save(new User(null, "owner", "owner" + System.nanoTime() + "@user.com"));
+        User booker = userRepository.save(new User(null, "booker", "booker" + System.nanoTime() + "@user.com"));
+        Item item = new Item(null, "Дрель", "Простая дрель", true);
+        item.setOwner(owner);
+        itemRepository.save(item);
+        long bookingId = bookingRepository.save(new Booking(null, start, start.plusDays(1L), item, booker,
+                Status.WAITING)).getId();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS_COUNT);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS_COUNT; i++) {
+            results.add(executor.submit(() -> {
+                startSignal.await();
+                try {
+                    bookingService.updateBooking(bookingId, owner.getId(), "false");
+                    return true;
+                } catch (ValidationException e) {
+                    return false;
+                }
+            }));
+        }
+        startSignal.countDown();
+        int rejected = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(30, TimeUnit.SECONDS)) {
+                rejected++;
+            }
+        }
+        executor.shutdown();
+
+        assertThat(rejected).isEqualTo(1);
+        assertThat(bookingRepository.findById(bookingId))
+                .hasValueSatisfying(booking -> assertThat(booking.getStatus()).isEqualTo(Status.REJECTED));
+    }
+}
@@ -9,9 +9,13 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.*;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.ShortBookingDto;
 import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dto.UserDto;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
@@ -22,6 +26,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(BookingController.class)
@@ -41,10 +46,11 @@ class BookingControllerTest {
             LocalDateTime.of(2024, 5, 25, 22, 50));
     User user1 = new User(1L, "user1", "user@user.com");
     Item item = new Item(1L, "Кухонный стол", "Стол для празднования", true);
-    Booking bookingBeforePatch = new Booking(1L, shortBookingDto.getStart(), shortBookingDto.getEnd(), item, user1,
-            Status.WAITING);
-    Booking bookingAfterPatch = new Booking(1L, shortBookingDto.getStart(), shortBookingDto.getEnd(), item, user1,
-            Status.APPROVED);
+    BookingDto bookingBeforePatch = new BookingDto(1L, shortBookingDto.getStart(), shortBookingDto.getEnd(),
+            new ItemDto(item.getId(), item.getName(), item.getDescription(), item.getAvailable()),
+            new UserDto(user1.getId(), user1.getName(), user1.getEmail()), Status.WAITING);
+    BookingDto bookingAfterPatch = new BookingDto(1L, shortBookingDto.getStart(), shortBookingDto.getEnd(),
+            bookingBeforePatch.getItem(), bookingBeforePatch.getBooker(), Status.APPROVED);
 
     @Test
     void checkAddBooking() throws Exception {
@@ -131,13 +137,18 @@ class BookingControllerTest {
                 LocalDateTime.of(2025, 6, 6, 20, 15), item, user1, Status.APPROVED));
         bookings.add(new Booking(3L, LocalDateTime.of(2024, 5, 5, 23, 30),
                 LocalDateTime.of(2026, 6, 6, 20, 15), item, user1, Status.APPROVED));
-        Sort sortByStart = Sort.by(Sort.Direction.DESC, "start");
+        Sort sortByStart = Sort.by(Sort.Direction.DESC, "start")
+                .and(Sort.by(Sort.Direction.DESC, "id"));
         Pageable pageable = PageRequest.of(0, 10, sortByStart);
-        Page<Booking> pagedBookings = new PageImpl<>(bookings);
         when(bookingRepository.findAllByBookerIdAndStartIsBeforeOrderByIdAsc(user1.getId(), LocalDateTime.now(), pageable))
-                .thenReturn(pagedBookings);
-        when(bookingService.getBookingsByUser(user1.getId(), "CURRENT", 0, 10))
                 .thenReturn(bookings);
+        List<BookingDto> bookingDtos = new ArrayList<>();
+        bookingDtos.add(new BookingDto(4L, bookings.get(0).getStart(), bookings.get(0).getEnd(),
+                bookingAfterPatch.getItem(), bookingAfterPatch.getBooker(), Status.APPROVED));
+        bookingDtos.add(new BookingDto(3L, bookings.get(1).getStart(), bookings.get(1).getEnd(),
+                bookingAfterPatch.getItem(), bookingAfterPatch.getBooker(), Status.APPROVED));
+        when(bookingService.getBookingsByUser(user1.getId(), "CURRENT", 0, 10))
+                .thenReturn(bookingDtos);
 
         mockMvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", user1.getId())
@@ -146,7 +157,7 @@ class BookingControllerTest {
                         .param("size", String.valueOf(10))
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(content().json(mapper.writeValueAsString(bookings)));
+                .andExpect(content().json(mapper.writeValueAsString(bookingDtos)));
 
         assertEquals(2, bookingService.getBookingsByUser(user1.getId(), "CURRENT", 0, 10).size());
     }
@@ -169,4 +180,38 @@ class BookingControllerTest {
         verify(bookingService, times(1))
                 .getBookingsByOwner(user1.getId(), "ALL", 0, 20);
     }
+
+    @Test
+    void checkGetBookingsByUserAfterCursor() throws Exception {
+        Cursor after = Cursor.of(bookingAfterPatch.getStart().plusDays(1L), 5L);
+        when(bookingService.getBookingsByUserAfter(user1.getId(), "ALL", after, 1))
+                .thenReturn(List.of(bookingAfterPatch));
+
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", user1.getId())
+                        .param("state", "ALL")
+                        .param("from", "0")
+                        .param("size", "1")
+                        .param("after", after.toString()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(Cursor.NEXT_CURSOR_HEADER,
+                        Cursor.of(bookingAfterPatch.getStart(), bookingAfterPatch.getId()).toString()));
+
+        verify(bookingService, times(1))
+                .getBookingsByUserAfter(user1.getId(), "ALL", after, 1);
+    }
+
+    @Test
+    void getBookingsByOwnerShouldReturnBadRequestIfCursorIsWrong() throws Exception {
+        mockMvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", user1.getId())
+                        .param("state", "ALL")
+                        .param("from", "0")
+                        .param("size", "20")
+                        .param("after", "вчера"))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().doesNotExist(Cursor.NEXT_CURSOR_HEADER));
+
+        verifyNoInteractions(bookingService);
+    }
 }
@@ -0,0 +1,140 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class BookingCursorTest {
+
+    @Autowired
+    MockMvc mvc;
+    @Autowired
+    ObjectMapper mapper;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    BookingRepository bookingRepository;
+
+    private User createUser(String name) {
+        return userRepository.save(new User(null, name, name + System.nanoTime() + "@user.com"));
+    }
+
+    private Item createItem(User owner) {
+        Item item = new Item(null, "Дрель", "Простая дрель", true);
+        item.setOwner(owner);
+        return itemRepository.save(item);
+    }
+
+    /**
+     * Пять ожидающих бронирований, два из которых начинаются одновременно. Возвращает номера
+     * в порядке постраничного вывода: по убыванию начала, при равном начале — по убыванию номера.
+     */
+    private List<Long> createBookings(Item item, User booker) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1L).truncatedTo(ChronoUnit.SECONDS);
+        long first = save(item, booker, start).getId();
+        long second = save(item, booker, start.plusDays(1L)).getId();
+        long tieFirst = save(item, booker, start.plusDays(2L)).getId();
+        long tieSecond = save(item, booker, start.plusDays(2L)).getId();
+        long last = save(item, booker, start.plusDays(3L)).getId();
+        return List.of(last, tieSecond, tieFirst, second, first);
+    }
+
+    private Booking save(Item item, User booker, LocalDateTime start) {
+        return bookingRepository.save(new Booking(null, start, start.plusHours(1L), item, booker, Status.WAITING));
+    }
+
+    private List<Long> readAllPages(String path, User user, String state) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = get(path)
+                    .header("X-Sharer-User-Id", user.getId())
+                    .param("state", state)
+                    .param("from", "0")
+                    .param("size", "2");
+            if (cursor != null) {
+                request.param("after", cursor);
+            }
+            MockHttpServletResponse response = mvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn()
+                    .getResponse();
+            for (JsonNode booking : mapper.readTree(response.getContentAsString())) {
+                ids.add(booking.get("id").asLong());
+            }
+            cursor = response.getHeader(Cursor.NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+        return ids;
+    }
+
+    @Test
+    public void cursorOfOffsetPageShouldContinueBookerBookings() throws Exception {
+        User owner = createUser("owner");
+        User booker = createUser("booker");
+        List<Long> expected = createBookings(createItem(owner), booker);
+
+        assertThat(readAllPages("/bookings", booker, "ALL")).containsExactlyElementsOf(expected);
+        assertThat(readAllPages("/bookings", booker, "WAITING")).containsExactlyElementsOf(expected);
+        assertThat(readAllPages("/bookings", booker, "FUTURE")).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    public void cursorOfOffsetPageShouldContinueOwnerBookings() throws Exception {
+        User owner = createUser("owner");
+        User booker = createUser("booker");
+        List<Long> expected = createBookings(createItem(owner), booker);
+
+        assertThat(readAllPages("/bookings/owner", owner, "ALL")).containsExactlyElementsOf(expected);
+        assertThat(readAllPages("/bookings/owner", owner, "WAITING")).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    public void currentBookerBookingsInOffsetModeShouldNotReturnCursor() throws Exception {
+        User owner = createUser("owner");
+        User booker = createUser("booker");
+        Item item = createItem(owner);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 2; i++) {
+            bookingRepository.save(new Booking(null, now.minusDays(i + 1), now.plusDays(1L), item, booker,
+                    Status.APPROVED));
+        }
+
+        MockHttpServletResponse response = mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .param("state", "CURRENT")
+                        .param("from", "0")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+
+        assertThat(mapper.readTree(response.getContentAsString())).hasSize(2);
+        assertThat(response.getHeader(Cursor.NEXT_CURSOR_HEADER)).isNull();
+    }
+}
@@ -0,0 +1,169 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingOccupancyIndexTest {
+
+    @Mock
+    BookingRepository bookingRepository;
+    BookingOccupancyIndex index;
+    LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0);
+    Item item = new Item(1L, "Дрель", "Простая дрель", true);
+    User booker = new User(2L, "booker", "booker@user.com");
+
+    private Booking booking(long id, int fromDay, int toDay, Status status) {
+        return new Booking(id, start.plusDays(fromDay), start.plusDays(toDay), item, booker, status);
+    }
+
+    private AvailabilityIntervalDto interval(int fromDay, int toDay) {
+        return new AvailabilityIntervalDto(start.plusDays(fromDay), start.plusDays(toDay));
+    }
+
+    /**
+     * Выполняет изменение индекса внутри имитации транзакции и возвращает её обработчики завершения,
+     * не вызывая их: так тест сам выбирает, в каком порядке транзакции «фиксируются».
+     */
+    private List<TransactionSynchronization> inTransaction(Runnable change) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            change.run();
+            return TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private void complete(List<TransactionSynchronization> synchronizations, int status) {
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    @BeforeEach
+    public void setup() {
+        index = new BookingOccupancyIndex(bookingRepository, true);
+    }
+
+    @Test
+    public void busyIntervalsShouldBeMergedAndClippedToWindow() {
+        when(bookingRepository.findAllByStatusAndIdGreaterThanOrderByIdAsc(eq(Status.APPROVED), anyLong(), any()))
+                .thenReturn(List.of(booking(1, 0, 2, Status.APPROVED), booking(2, 2, 3, Status.APPROVED),
+                        booking(3, 5, 6, Status.APPROVED), booking(4, 9, 12, Status.APPROVED)));
+        index.rebuild();
+
+        assertThat(index.findBusy(1L, start.plusDays(1), start.plusDays(10)))
+                .hasValue(List.of(interval(1, 3), interval(5, 6), interval(9, 10)));
+        assertThat(index.findBusy(1L, start.plusDays(3), start.plusDays(5))).hasValue(List.of());
+        assertThat(index.findBusy(99L, start, start.plusDays(10))).hasValue(List.of());
+    }
+
+    @Test
+    public void longBookingStartedBeforeWindowShouldBeFound() {
+        when(bookingRepository.findAllByStatusAndIdGreaterThanOrderByIdAsc(eq(Status.APPROVED), anyLong(), any()))
+                .thenReturn(List.of(booking(1, 0, 100, Status.APPROVED), booking(2, 50, 51, Status.APPROVED),
+                        booking(3, 60, 61, Status.APPROVED)));
+        index.rebuild();
+
+        assertThat(index.findBusy(1L, start.plusDays(70), start.plusDays(80)))
+                .hasValue(List.of(interval(70, 80)));
+    }
+
+    @Test
+    public void statusChangesShouldUpdateOccupancy() {
+        when(bookingRepository.findAllByStatusAndIdGreaterThanOrderByIdAsc(eq(Status.APPROVED), anyLong(), any()))
+                .thenReturn(List.of());
+        index.rebuild();
+        Booking booking = booking(1, 1, 2, Status.WAITING);
+
+        index.index(booking);
+        assertThat(index.findBusy(1L, start, start.plusDays(3))).hasValue(List.of());
+
+        index.index(booking, Status.APPROVED);
+        assertThat(index.findBusy(1L, start, start.plusDays(3))).hasValue(List.of(interval(1, 2)));
+
+        index.index(booking, Status.REJECTED);
+        assertThat(index.findBusy(1L, start, start.plusDays(3))).hasValue(List.of());
+
+        index.index(booking, Status.APPROVED);
+        index.removeBooker(booker.getId());
+        assertThat(index.findBusy(1L, start, start.plusDays(3))).hasValue(List.of());
+    }
+
+    @Test
+    public void changesCommittedOutOfOrderShouldKeepLatestStatus() {
+        when(bookingRepository.findAllByStatusAndIdGreaterThanOrderByIdAsc(eq(Status.APPROVED), anyLong(), any()))
+                .thenReturn(List.of());
+        index.rebuild();
+        Booking booking = booking(1, 1, 2, Status.WAITING);
+
+        List<TransactionSynchronization> approve = inTransaction(() -> index.index(booking, Status.APPROVED));
+        List<TransactionSynchronization> reject = inTransaction(() -> index.index(booking, Status.REJECTED));
+        complete(reject, TransactionSynchronization.STATUS_COMMITTED);
+        complete(approve, TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(index.findBusy(1L, start, start.plusDays(3))).hasValue(List.of());
+
+        List<TransactionSynchronization> approveAgain = inTransaction(() -> index.index(booking, Status.APPROVED));
+        complete(approveAgain, TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(index.findBusy(1L, start, start.plusDays(3))).hasValue(List.of(interval(1, 2)));
+    }
+
+    @Test
+    public void rolledBackChangeShouldNotBlockEarlierOne() {
+        when(bookingRepository.findAllByStatusAndIdGreaterThanOrderByIdAsc(eq(Status.APPROVED), anyLong(), any()))
+                .thenReturn(List.of());
+        index.rebuild();
+        Booking booking = booking(1, 1, 2, Status.WAITING);
+
+        List<TransactionSynchronization> approve = inTransaction(() -> index.index(booking, Status.APPROVED));
+        List<TransactionSynchronization> delete = inTransaction(() -> index.remove(booking.getId()));
+        complete(delete, TransactionSynchronization.STATUS_ROLLED_BACK);
+        complete(approve, TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(index.findBusy(1L, start, start.plusDays(3))).hasValue(List.of(interval(1, 2)));
+    }
+
+    @Test
+    public void removingLongestBookingShouldNarrowLookup() {
+        when(bookingRepository.findAllByStatusAndIdGreaterThanOrderByIdAsc(eq(Status.APPROVED), anyLong(), any()))
+                .thenReturn(List.of(booking(1, 0, 100, Status.APPROVED), booking(2, 60, 61, Status.APPROVED),
+                        booking(3, 70, 71, Status.APPROVED)));
+        index.rebuild();
+
+        index.remove(1L);
+
+        assertThat(index.findBusy(1L, start.plusDays(70), start.plusDays(80)))
+                .hasValue(List.of(interval(70, 71)));
+        assertThat(index.findBusy(1L, start.plusDays(50), start.plusDays(60))).hasValue(List.of());
+    }
+
+    @Test
+    public void disabledIndexShouldNotAnswer() {
+        BookingOccupancyIndex disabled = new BookingOccupancyIndex(bookingRepository, false);
+        disabled.rebuild();
+
+        assertThat(disabled.isReady()).isFalse();
+        assertThat(disabled.findBusy(1L, start, start.plusDays(1))).isEmpty();
+        assertThat(BookingOccupancyIndex.mergeBusy(List.of(booking(1, 0, 2, Status.APPROVED),
+                booking(2, 1, 3, Status.APPROVED)), start.plusDays(1), start.plusDays(5)))
+                .isEqualTo(List.of(interval(1, 3)));
+    }
+}
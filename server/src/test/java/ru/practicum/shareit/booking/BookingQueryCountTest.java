@@ -0,0 +1,140 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class BookingQueryCountTest {
+
+    @Autowired
+    MockMvc mvc;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    Statistics statistics;
+
+    @BeforeEach
+    public void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private User createUser(String name) {
+        return userRepository.save(new User(null, name, name + System.nanoTime() + "@user.com"));
+    }
+
+    private void createBookings(User owner, User booker, int bookingsCount) {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < bookingsCount; i++) {
+            Item item = new Item(null, "Дрель " + i, "Простая дрель", true);
+            item.setOwner(owner);
+            itemRepository.save(item);
+            bookingRepository.save(new Booking(null, now.plusDays(i + 1), now.plusDays(i + 2), item, booker,
+                    Status.WAITING));
+        }
+    }
+
+    private long countStatementsOfBookingsPage(String path, User user, String state, int size, String after)
+            throws Exception {
+        MockHttpServletRequestBuilder request = get(path)
+                .header("X-Sharer-User-Id", user.getId())
+                .param("state", state)
+                .param("from", "0")
+                .param("size", String.valueOf(size));
+        if (after != null) {
+            request.param("after", after);
+        }
+        statistics.clear();
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(size)))
+                .andExpect(jsonPath("$[0].item.name").exists())
+                .andExpect(jsonPath("$[0].booker.id").exists());
+        assertThat(statistics.getEntityFetchCount()).isZero();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void assertConstantStatements(String path, String state, String after) throws Exception {
+        User smallOwner = createUser("owner");
+        User smallBooker = createUser("booker");
+        createBookings(smallOwner, smallBooker, 2);
+        User largeOwner = createUser("owner");
+        User largeBooker = createUser("booker");
+        createBookings(largeOwner, largeBooker, 20);
+        boolean byOwner = path.endsWith("/owner");
+
+        long smallPageStatements = countStatementsOfBookingsPage(path, byOwner ? smallOwner : smallBooker, state,
+                2, after);
+        long largePageStatements = countStatementsOfBookingsPage(path, byOwner ? largeOwner : largeBooker, state,
+                20, after);
+
+        assertThat(largePageStatements)
+                .isEqualTo(smallPageStatements)
+                .isEqualTo(2);
+    }
+
+    @Test
+    public void bookingsPageShouldBeRenderedWithoutLazyLoading() throws Exception {
+        assertConstantStatements("/bookings", "ALL", LocalDateTime.now().plusYears(1L) + "," + Long.MAX_VALUE);
+    }
+
+    @Test
+    public void bookingsOffsetPageShouldNotCountRows() throws Exception {
+        assertConstantStatements("/bookings", "ALL", null);
+        assertConstantStatements("/bookings", "WAITING", null);
+    }
+
+    @Test
+    public void ownerBookingsOffsetPageShouldNotCountRows() throws Exception {
+        assertConstantStatements("/bookings/owner", "ALL", null);
+        assertConstantStatements("/bookings/owner", "FUTURE", null);
+    }
+
+    @Test
+    public void approveShouldLoadBookingAndChangeStatusWithSingleUpdate() throws Exception {
+        User owner = createUser("owner");
+        User booker = createUser("booker");
+        createBookings(owner, booker, 1);
+        long bookingId = bookingRepository.findAllByBookerId(booker.getId()).get(0).getId();
+
+        statistics.clear();
+        mvc.perform(patch("/bookings/" + bookingId)
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .param("approved", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("APPROVED"));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityUpdateCount()).isZero();
+        assertThat(bookingRepository.findById(bookingId))
+                .hasValueSatisfying(booking -> assertThat(booking.getStatus()).isEqualTo(Status.APPROVED));
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemRepository;
@@ -106,7 +107,73 @@ public class BookingRepositoryTest {
         Booking booking = new Booking(1L, now, now.minusHours(5L), item, user, Status.WAITING);
         bookingRepository.save(booking);
 
-        assertEquals(1, bookingRepository.getAllBookingsInfoByOwnerLikePage(user.getId(), pageable)
-                .getContent().size());
+        assertEquals(1, bookingRepository.getAllBookingsInfoByOwnerLikePage(user.getId(), pageable).size());
+    }
+
+    @Test
+    public void checkFindAllByBookerIdAndItemOwnerIdAfter() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1L).withNano(0);
+        User owner = userRepository.save(new User(1L, "user1", "user@user.com"));
+        User booker = userRepository.save(new User(2L, "user2", "user@another.com"));
+        Item item = new Item(1L, "Кухонный стол", "Стол для празднования", true);
+        item.setOwner(owner);
+        itemRepository.save(item);
+        Booking first = bookingRepository.save(new Booking(null, start, start.plusHours(1L), item, booker,
+                Status.WAITING));
+        Booking second = bookingRepository.save(new Booking(null, start, start.plusHours(2L), item, booker,
+                Status.APPROVED));
+        Booking third = bookingRepository.save(new Booking(null, start.minusHours(5L), start.minusHours(4L), item,
+                booker, Status.WAITING));
+        Booking fourth = bookingRepository.save(new Booking(null, start.plusDays(3L), start.plusDays(4L), item,
+                booker, Status.REJECTED));
+
+        assertThat(bookingRepository.findAllByBookerIdAfter(booker.getId(), fourth.getStart(), fourth.getId(),
+                PageRequest.ofSize(2)))
+                .containsExactly(second, first);
+        assertThat(bookingRepository.findAllByItemOwnerIdAfter(owner.getId(), first.getStart(), first.getId(),
+                PageRequest.ofSize(2)))
+                .containsExactly(third);
+        assertThat(bookingRepository.findAllByItemOwnerIdAndStatusAfter(owner.getId(), Status.WAITING,
+                second.getStart(), second.getId(), PageRequest.ofSize(10)))
+                .containsExactly(first, third);
+        assertThat(bookingRepository.findFutureByBookerIdAfter(booker.getId(), LocalDateTime.now(),
+                start.plusDays(10L), 0L, PageRequest.ofSize(10)))
+                .containsExactly(fourth, second, first, third);
+    }
+
+    @Test
+    public void checkFindAllByItemOwnerIdFiltersEveryStateInDatabase() {
+        LocalDateTime now = LocalDateTime.now();
+        User owner = userRepository.save(new User(1L, "user1", "user@user.com"));
+        User booker = userRepository.save(new User(2L, "user2", "user@another.com"));
+        Item item = new Item(1L, "Кухонный стол", "Стол для празднования", true);
+        item.setOwner(owner);
+        itemRepository.save(item);
+        Booking past = bookingRepository.save(new Booking(null, now.minusDays(3L), now.minusDays(2L), item, booker,
+                Status.APPROVED));
+        Booking current = bookingRepository.save(new Booking(null, now.minusDays(1L), now.plusDays(1L), item,
+                booker, Status.APPROVED));
+        Booking rejected = bookingRepository.save(new Booking(null, now.plusDays(2L), now.plusDays(3L), item,
+                booker, Status.REJECTED));
+        Booking waiting = bookingRepository.save(new Booking(null, now.plusDays(4L), now.plusDays(5L), item,
+                booker, Status.WAITING));
+        Booking nextWaiting = bookingRepository.save(new Booking(null, now.plusDays(6L), now.plusDays(7L), item,
+                booker, Status.WAITING));
+        Pageable firstPage = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "start"));
+
+        assertThat(bookingRepository.findAllByItemOwnerIdAndStatusEquals(owner.getId(), Status.WAITING, firstPage))
+                .containsExactly(nextWaiting, waiting);
+        assertThat(bookingRepository.findAllByItemOwnerIdAndStatusEquals(owner.getId(), Status.REJECTED,
+                firstPage))
+                .containsExactly(rejected);
+        assertThat(bookingRepository.findAllByItemOwnerIdAndEndIsBefore(owner.getId(), now, firstPage))
+                .containsExactly(past);
+        assertThat(bookingRepository.findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfter(owner.getId(), now, now,
+                firstPage))
+                .containsExactly(current);
+        assertThat(bookingRepository.findAllByItemOwnerIdAndStartIsAfter(owner.getId(), now, firstPage))
+                .containsExactly(nextWaiting, waiting);
+        assertThat(bookingRepository.findAllByItemOwnerIdAndStartIsAfter(booker.getId(), now, firstPage))
+                .isEmpty();
     }
 }
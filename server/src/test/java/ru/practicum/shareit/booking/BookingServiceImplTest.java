@@ -5,29 +5,38 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.*;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.ShortBookingDto;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.UnsupportedStateException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.ItemServiceImpl;
 import ru.practicum.shareit.item.dto.ItemDto;
-import ru.practicum.shareit.mappers.EntityMapper;
+import ru.practicum.shareit.mappers.EntityMapperImpl;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.UserServiceImpl;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 @Transactional
@@ -41,11 +50,15 @@ public class BookingServiceImplTest {
     @Mock
     ItemServiceImpl itemService;
     @Mock
+    ItemRepository itemRepository;
+    @Mock
     UserRepository userRepository;
     @Mock
     UserServiceImpl userService;
     @Mock
-    EntityMapper entityMapper;
+    BookingOccupancyIndex bookingOccupancyIndex;
+    @Spy
+    EntityMapperImpl entityMapper;
     User user1;
     User user2;
     ItemDto itemDto;
@@ -141,7 +154,78 @@ public class BookingServiceImplTest {
         assertThat(bookingService.addBooking(shortBookingDto, user1.getId()))
                 .isNotNull()
                 .usingRecursiveComparison()
-                .isEqualTo(bookingBeforePatch);
+                .isEqualTo(entityMapper.bookingToBookingDto(bookingBeforePatch));
+    }
+
+    @Test
+    public void addBookingShouldThrowConflictExceptionIfItemIsAlreadyBooked() {
+        when(entityMapper.shortBookingDtoToBooking(shortBookingDto))
+                .thenReturn(bookingBeforePatch);
+        when(userService.findUser(user1.getId()))
+                .thenReturn(user1);
+        when(itemService.findItem(item.getId()))
+                .thenReturn(item);
+        item.setOwner(user2);
+        when(bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfterAndIdNot(item.getId(),
+                Status.APPROVED, bookingBeforePatch.getEnd(), bookingBeforePatch.getStart(),
+                bookingBeforePatch.getId()))
+                .thenReturn(true);
+
+        assertThrows(ConflictException.class, () -> bookingService.addBooking(shortBookingDto, user1.getId()));
+    }
+
+    @Test
+    public void approveBookingShouldThrowConflictExceptionIfItemIsAlreadyBooked() {
+        when(bookingRepository.findById(bookingBeforePatch.getId()))
+                .thenReturn(Optional.of(bookingBeforePatch));
+        item.setOwner(user2);
+        when(bookingRepository.approveIfFree(bookingBeforePatch.getId(), EnumSet.of(Status.WAITING, Status.REJECTED)))
+                .thenReturn(0);
+        when(bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfterAndIdNot(item.getId(),
+                Status.APPROVED, bookingBeforePatch.getEnd(), bookingBeforePatch.getStart(),
+                bookingBeforePatch.getId()))
+                .thenReturn(true);
+
+        assertThrows(ConflictException.class, () -> bookingService.updateBooking(bookingBeforePatch.getId(),
+                user2.getId(), "true"));
+        assertEquals(Status.WAITING, bookingBeforePatch.getStatus());
+    }
+
+    @Test
+    public void approveBookingShouldThrowConflictExceptionIfConcurrentApprovalViolatesConstraint() {
+        when(bookingRepository.findById(bookingBeforePatch.getId()))
+                .thenReturn(Optional.of(bookingBeforePatch));
+        item.setOwner(user2);
+        when(bookingRepository.approveIfFree(bookingBeforePatch.getId(), EnumSet.of(Status.WAITING, Status.REJECTED)))
+                .thenThrow(new DataIntegrityViolationException("bookings_approved_not_overlapping"));
+
+        assertThrows(ConflictException.class, () -> bookingService.updateBooking(bookingBeforePatch.getId(),
+                user2.getId(), "true"));
+    }
+
+    @Test
+    public void approveBookingShouldThrowValidationExceptionIfStatusWasChangedConcurrently() {
+        when(bookingRepository.findById(bookingBeforePatch.getId()))
+                .thenReturn(Optional.of(bookingBeforePatch));
+        item.setOwner(user2);
+        when(bookingRepository.approveIfFree(bookingBeforePatch.getId(), EnumSet.of(Status.WAITING, Status.REJECTED)))
+                .thenReturn(0);
+
+        assertThrows(ValidationException.class, () -> bookingService.updateBooking(bookingBeforePatch.getId(),
+                user2.getId(), "true"));
+    }
+
+    @Test
+    public void rejectBookingShouldThrowValidationExceptionIfStatusWasChangedConcurrently() {
+        when(bookingRepository.findById(bookingBeforePatch.getId()))
+                .thenReturn(Optional.of(bookingBeforePatch));
+        item.setOwner(user2);
+        when(bookingRepository.updateStatus(bookingBeforePatch.getId(), Status.REJECTED,
+                EnumSet.of(Status.WAITING, Status.APPROVED)))
+                .thenReturn(0);
+
+        assertThrows(ValidationException.class, () -> bookingService.updateBooking(bookingBeforePatch.getId(),
+                user2.getId(), "false"));
     }
 
     @Test
@@ -153,8 +237,8 @@ public class BookingServiceImplTest {
     public void getBookingShouldThrowEntityNotFondExceptionIfBookingNotExists() {
         when(userRepository.existsById(user1.getId()))
                 .thenReturn(true);
-        when(bookingRepository.existsById(bookingBeforePatch.getId()))
-                .thenReturn(true);
+        when(bookingRepository.findById(bookingBeforePatch.getId()))
+                .thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class, () -> bookingService.getBooking(bookingBeforePatch.getId(), user1.getId()));
     }
@@ -164,8 +248,6 @@ public class BookingServiceImplTest {
         User user3 = new User(3L, "user3", "and_another@one.com");
         when(userRepository.existsById(user3.getId()))
                 .thenReturn(true);
-        when(bookingRepository.existsById(bookingBeforePatch.getId()))
-                .thenReturn(true);
         when(bookingRepository.findById(bookingBeforePatch.getId()))
                 .thenReturn(Optional.of(bookingBeforePatch));
         item.setOwner(user2);
@@ -179,19 +261,15 @@ public class BookingServiceImplTest {
     public void checkGetBooking() {
         when(userRepository.existsById(user1.getId()))
                 .thenReturn(true);
-        when(bookingRepository.existsById(bookingBeforePatch.getId()))
-                .thenReturn(true);
         when(bookingRepository.findById(bookingBeforePatch.getId()))
                 .thenReturn(Optional.of(bookingBeforePatch));
         item.setOwner(user2);
         bookingBeforePatch.setItem(item);
-        when(bookingRepository.getBookingInfo(bookingBeforePatch.getId(), user1.getId()))
-                .thenReturn(bookingBeforePatch);
 
         assertThat(bookingService.getBooking(bookingBeforePatch.getId(), user1.getId()))
                 .isNotNull()
                 .usingRecursiveComparison()
-                .isEqualTo(bookingBeforePatch);
+                .isEqualTo(entityMapper.bookingToBookingDto(bookingBeforePatch));
     }
 
     @Test
@@ -240,13 +318,13 @@ public class BookingServiceImplTest {
                 .thenReturn(Optional.of(bookingBeforePatch));
         item.setOwner(user2);
         bookingBeforePatch.setItem(item);
-        when(bookingRepository.save(bookingBeforePatch))
-                .thenReturn(bookingBeforePatch);
+        when(bookingRepository.approveIfFree(bookingBeforePatch.getId(), EnumSet.of(Status.WAITING, Status.REJECTED)))
+                .thenReturn(1);
 
         assertThat(bookingService.updateBooking(bookingBeforePatch.getId(), user2.getId(), "true"))
                 .isNotNull()
                 .usingRecursiveComparison()
-                .isEqualTo(bookingAfterPatch);
+                .isEqualTo(entityMapper.bookingToBookingDto(bookingAfterPatch));
     }
 
     @Test
@@ -257,14 +335,15 @@ public class BookingServiceImplTest {
                 .thenReturn(Optional.of(bookingBeforePatch));
         item.setOwner(user2);
         bookingBeforePatch.setItem(item);
-        when(bookingRepository.save(bookingBeforePatch))
-                .thenReturn(bookingBeforePatch);
+        when(bookingRepository.updateStatus(bookingBeforePatch.getId(), Status.REJECTED,
+                EnumSet.of(Status.WAITING, Status.APPROVED)))
+                .thenReturn(1);
         bookingAfterPatch.setStatus(Status.REJECTED);
 
         assertThat(bookingService.updateBooking(bookingBeforePatch.getId(), user2.getId(), "false"))
                 .isNotNull()
                 .usingRecursiveComparison()
-                .isEqualTo(bookingAfterPatch);
+                .isEqualTo(entityMapper.bookingToBookingDto(bookingAfterPatch));
     }
 
     @Test
@@ -300,12 +379,12 @@ public class BookingServiceImplTest {
         List<Booking> bookings = new ArrayList<>();
         bookings.add(bookingBeforePatch);
         bookings.add(booking2);
-        Sort sortByStart = Sort.by(Sort.Direction.DESC, "start");
+        Sort sortByStart = Sort.by(Sort.Direction.DESC, "start")
+                .and(Sort.by(Sort.Direction.DESC, "id"));
         Pageable pageable = PageRequest.of(0, 10, sortByStart);
-        Page<Booking> pagedBookings = new PageImpl<>(bookings);
         when(bookingRepository.findAllByBookerIdAndStatusEquals(user1.getId(),
                 Status.WAITING, pageable))
-                .thenReturn(pagedBookings);
+                .thenReturn(bookings);
 
         assertEquals(2, bookingService.getBookingsByUser(user1.getId(), "WAITING", 0, 10).size());
     }
@@ -319,11 +398,11 @@ public class BookingServiceImplTest {
         List<Booking> bookings = new ArrayList<>();
         bookings.add(bookingBeforePatch);
         bookings.add(booking2);
-        Sort sortByStart = Sort.by(Sort.Direction.DESC, "start");
+        Sort sortByStart = Sort.by(Sort.Direction.DESC, "start")
+                .and(Sort.by(Sort.Direction.DESC, "id"));
         Pageable pageable = PageRequest.of(0 / 10, 10, sortByStart);
-        Page<Booking> pagedBookings = new PageImpl<>(bookings);
         when(bookingRepository.findAllByBookerId(user1.getId(), pageable))
-                .thenReturn(pagedBookings);
+                .thenReturn(bookings);
 
         assertEquals(2, bookingService.getBookingsByUser(user1.getId(), "ALL", 0, 10).size());
     }
@@ -337,11 +416,11 @@ public class BookingServiceImplTest {
         List<Booking> bookings = new ArrayList<>();
         bookingAfterPatch.setStatus(Status.REJECTED);
         bookings.add(bookingAfterPatch);
-        Sort sortByStart = Sort.by(Sort.Direction.DESC, "start");
+        Sort sortByStart = Sort.by(Sort.Direction.DESC, "start")
+                .and(Sort.by(Sort.Direction.DESC, "id"));
         Pageable pageable = PageRequest.of(0, 10, sortByStart);
-        Page<Booking> pagedBookings = new PageImpl<>(bookings);
         when(bookingRepository.findAllByBookerIdAndStatusEquals(user1.getId(), Status.REJECTED, pageable))
-                .thenReturn(pagedBookings);
+                .thenReturn(bookings);
 
         assertEquals(1, bookingService.getBookingsByUser(user1.getId(), "REJECTED", 0, 10).size());
     }
@@ -371,18 +450,20 @@ public class BookingServiceImplTest {
         item.setOwner(user2);
         bookingBeforePatch.setItem(item);
         booking2.setItem(item);
-        bookings.add(bookingBeforePatch);
         bookings.add(booking2);
-        Sort sortByStart = Sort.by(Sort.Direction.DESC, "start");
+        bookings.add(bookingBeforePatch);
+        Sort sortByStart = Sort.by(Sort.Direction.DESC, "start")
+                .and(Sort.by(Sort.Direction.DESC, "id"));
         Pageable pageable = PageRequest.of(0, 10, sortByStart);
-        Page<Booking> pagedBookings = new PageImpl<>(bookings);
-        when(bookingRepository.getAllBookingsInfoByOwnerLikePage(user2.getId(), pageable))
-                .thenReturn(pagedBookings);
+        when(bookingRepository.findAllByItemOwnerIdAndStatusEquals(user2.getId(), Status.WAITING, pageable))
+                .thenReturn(bookings);
 
         assertThat(bookingService.getBookingsByOwner(user2.getId(), "WAITING", 0, 10))
                 .isNotNull()
                 .usingRecursiveComparison()
-                .isEqualTo(bookings);
+                .isEqualTo(bookings.stream()
+                        .map(entityMapper::bookingToBookingDto)
+                        .collect(Collectors.toList()));
     }
 
     @Test
@@ -397,11 +478,11 @@ public class BookingServiceImplTest {
         booking2.setItem(item);
         bookings.add(bookingBeforePatch);
         bookings.add(booking2);
-        Sort sortByStart = Sort.by(Sort.Direction.DESC, "start");
+        Sort sortByStart = Sort.by(Sort.Direction.DESC, "start")
+                .and(Sort.by(Sort.Direction.DESC, "id"));
         Pageable pageable = PageRequest.of(0, 10, sortByStart);
-        Page<Booking> pagedBookings = new PageImpl<>(bookings);
         when(bookingRepository.getAllBookingsInfoByOwnerLikePage(user2.getId(), pageable))
-                .thenReturn(pagedBookings);
+                .thenReturn(bookings);
 
         assertEquals(2, bookingService.getBookingsByOwner(user2.getId(), "ALL", 0, 10).size());
     }
@@ -409,72 +490,115 @@ public class BookingServiceImplTest {
     @Test
     public void checkGetBookingsByOwnerIfStateIsRejected() {
         Booking bookingAfterPatch = new Booking(1L, shortBookingDto.getStart(), shortBookingDto.getEnd(), item, user1,
-                Status.APPROVED);
+                Status.REJECTED);
         when(userRepository.existsById(user2.getId()))
                 .thenReturn(true);
         List<Booking> bookings = new ArrayList<>();
         item.setOwner(user2);
-        bookingBeforePatch.setItem(item);
-        bookingAfterPatch.setStatus(Status.REJECTED);
         bookings.add(bookingAfterPatch);
-        Sort sortByStart = Sort.by(Sort.Direction.DESC, "start");
+        Sort sortByStart = Sort.by(Sort.Direction.DESC, "start")
+                .and(Sort.by(Sort.Direction.DESC, "id"));
         Pageable pageable = PageRequest.of(0, 10, sortByStart);
-        Page<Booking> pagedBookings = new PageImpl<>(bookings);
-        when(bookingRepository.getAllBookingsInfoByOwnerLikePage(user2.getId(), pageable))
-                .thenReturn(pagedBookings);
+        when(bookingRepository.findAllByItemOwnerIdAndStatusEquals(user2.getId(), Status.REJECTED, pageable))
+                .thenReturn(bookings);
 
         assertEquals(1, bookingService.getBookingsByOwner(user2.getId(), "REJECTED", 0, 10).size());
     }
 
     @Test
     public void checkGetBookingsByOwnerIfStateIsPast() {
+        LocalDateTime now = LocalDateTime.now();
         when(userRepository.existsById(user2.getId()))
                 .thenReturn(true);
         List<Booking> bookings = new ArrayList<>();
-        bookings.add(new Booking(4L, LocalDateTime.of(2022, 5, 5, 23, 30),
-                LocalDateTime.of(2022, 6, 6, 20, 15), item, user1, Status.APPROVED));
-        Sort sortByStart = Sort.by(Sort.Direction.DESC, "start");
+        bookings.add(new Booking(4L, now.minusDays(30L), now.minusDays(20L), item, user1, Status.APPROVED));
+        Sort sortByStart = Sort.by(Sort.Direction.DESC, "start")
+                .and(Sort.by(Sort.Direction.DESC, "id"));
         Pageable pageable = PageRequest.of(0, 10, sortByStart);
-        Page<Booking> pagedBookings = new PageImpl<>(bookings);
-        when(bookingRepository.getAllBookingsInfoByOwnerLikePage(user2.getId(), pageable))
-                .thenReturn(pagedBookings);
+        when(bookingRepository.findAllByItemOwnerIdAndEndIsBefore(eq(user2.getId()), any(LocalDateTime.class),
+                eq(pageable)))
+                .thenReturn(bookings);
 
         assertEquals(1, bookingService.getBookingsByOwner(user2.getId(), "PAST", 0, 10).size());
     }
 
     @Test
     public void checkGetBookingsByOwnerIfStateIsFuture() {
+        LocalDateTime now = LocalDateTime.now();
         when(userRepository.existsById(user2.getId()))
                 .thenReturn(true);
         List<Booking> bookings = new ArrayList<>();
-        bookings.add(new Booking(4L, LocalDateTime.of(2025, 5, 5, 23, 30),
-                LocalDateTime.of(2025, 6, 6, 20, 15), item, user1, Status.APPROVED));
-        bookings.add(new Booking(3L, LocalDateTime.of(2026, 5, 5, 23, 30),
-                LocalDateTime.of(2026, 6, 6, 20, 15), item, user1, Status.APPROVED));
-        Sort sortByStart = Sort.by(Sort.Direction.DESC, "start");
+        bookings.add(new Booking(3L, now.plusDays(30L), now.plusDays(40L), item, user1, Status.APPROVED));
+        bookings.add(new Booking(4L, now.plusDays(5L), now.plusDays(6L), item, user1, Status.APPROVED));
+        Sort sortByStart = Sort.by(Sort.Direction.DESC, "start")
+                .and(Sort.by(Sort.Direction.DESC, "id"));
         Pageable pageable = PageRequest.of(0, 10, sortByStart);
-        Page<Booking> pagedBookings = new PageImpl<>(bookings);
-        when(bookingRepository.getAllBookingsInfoByOwnerLikePage(user2.getId(), pageable))
-                .thenReturn(pagedBookings);
+        when(bookingRepository.findAllByItemOwnerIdAndStartIsAfter(eq(user2.getId()), any(LocalDateTime.class),
+                eq(pageable)))
+                .thenReturn(bookings);
 
         assertEquals(2, bookingService.getBookingsByOwner(user2.getId(), "FUTURE", 0, 10).size());
     }
 
     @Test
     public void checkGetBookingsByOwnerIfStateIsCurrent() {
+        LocalDateTime now = LocalDateTime.now();
         when(userRepository.existsById(user2.getId()))
                 .thenReturn(true);
         List<Booking> bookings = new ArrayList<>();
-        bookings.add(new Booking(4L, LocalDateTime.of(2023, 5, 5, 23, 30),
-                LocalDateTime.of(2025, 6, 6, 20, 15), item, user1, Status.APPROVED));
-        bookings.add(new Booking(3L, LocalDateTime.of(2024, 5, 5, 23, 30),
-                LocalDateTime.of(2026, 6, 6, 20, 15), item, user1, Status.APPROVED));
-        Sort sortByStart = Sort.by(Sort.Direction.DESC, "start");
+        bookings.add(new Booking(3L, now.minusDays(5L), now.plusDays(5L), item, user1, Status.APPROVED));
+        bookings.add(new Booking(4L, now.minusDays(10L), now.plusDays(10L), item, user1, Status.APPROVED));
+        Sort sortByStart = Sort.by(Sort.Direction.DESC, "start")
+                .and(Sort.by(Sort.Direction.DESC, "id"));
         Pageable pageable = PageRequest.of(0, 10, sortByStart);
-        Page<Booking> pagedBookings = new PageImpl<>(bookings);
-        when(bookingRepository.getAllBookingsInfoByOwnerLikePage(user2.getId(), pageable))
-                .thenReturn(pagedBookings);
+        when(bookingRepository.findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfter(eq(user2.getId()),
+                any(LocalDateTime.class), any(LocalDateTime.class), eq(pageable)))
+                .thenReturn(bookings);
 
         assertEquals(2, bookingService.getBookingsByOwner(user2.getId(), "CURRENT", 0, 10).size());
     }
+
+    @Test
+    public void checkGetBookingsByUserAfterCursor() {
+        when(userRepository.existsById(user1.getId()))
+                .thenReturn(true);
+        Cursor after = Cursor.of(bookingBeforePatch.getStart().plusDays(1L), 10L);
+        when(bookingRepository.findAllByBookerIdAndStatusAfter(user1.getId(), Status.WAITING, after.getTimestamp(),
+                after.getId(), PageRequest.ofSize(10)))
+                .thenReturn(List.of(bookingBeforePatch));
+
+        assertThat(bookingService.getBookingsByUserAfter(user1.getId(), "WAITING", after, 10))
+                .containsExactly(entityMapper.bookingToBookingDto(bookingBeforePatch));
+    }
+
+    @Test
+    public void checkGetBookingsByOwnerAfterCursor() {
+        when(userRepository.existsById(user2.getId()))
+                .thenReturn(true);
+        Cursor after = Cursor.of(bookingBeforePatch.getStart().plusDays(1L), 10L);
+        when(bookingRepository.findAllByItemOwnerIdAfter(user2.getId(), after.getTimestamp(), after.getId(),
+                PageRequest.ofSize(10)))
+                .thenReturn(List.of(bookingBeforePatch));
+
+        assertThat(bookingService.getBookingsByOwnerAfter(user2.getId(), "ALL", after, 10))
+                .containsExactly(entityMapper.bookingToBookingDto(bookingBeforePatch));
+    }
+
+    @Test
+    public void getBookingsByOwnerAfterShouldThrowUnsupportedStateExceptionIfStateIsWrong() {
+        when(userRepository.existsById(user2.getId()))
+                .thenReturn(true);
+
+        assertThrows(UnsupportedStateException.class, () -> bookingService.getBookingsByOwnerAfter(user2.getId(),
+                "UNKNOWN", Cursor.of(LocalDateTime.now(), 1L), 10));
+    }
+
+    @Test
+    public void getBookingsByUserAfterShouldThrowIllegalArgumentExceptionIfSizeIsZero() {
+        when(userRepository.existsById(user1.getId()))
+                .thenReturn(true);
+
+        assertThrows(IllegalArgumentException.class, () -> bookingService.getBookingsByUserAfter(user1.getId(),
+                "ALL", Cursor.of(LocalDateTime.now(), 1L), 0));
+    }
 }
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.item.ItemServiceImpl;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserServiceImpl;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class CacheConfigTest {
+
+    @Autowired
+    UserServiceImpl userService;
+    @Autowired
+    ItemServiceImpl itemService;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    MeterRegistry meterRegistry;
+    Statistics statistics;
+    User owner;
+
+    @BeforeEach
+    public void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = userService.addUser(new UserDto(null, "owner", "owner" + System.nanoTime() + "@user.com"));
+    }
+
+    private long countStatements(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    public void repeatedUserLookupsShouldNotQueryDatabase() {
+        assertThat(countStatements(() -> userService.getUser(owner.getId()))).isEqualTo(1);
+        assertThat(countStatements(() -> userService.getUser(owner.getId()))).isZero();
+        assertThat(countStatements(() -> userService.findUser(owner.getId()))).isZero();
+        assertThat(meterRegistry.get("cache.gets")
+                .tag("cache", CacheConfig.USERS)
+                .tag("result", "hit")
+                .functionCounter()
+                .count())
+                .isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    public void userUpdateAndDeleteShouldInvalidateCache() {
+        userService.getUser(owner.getId());
+
+        userService.updateUser(new UserDto(null, "updated", null), owner.getId());
+
+        assertThat(userService.findUser(owner.getId()).getName()).isEqualTo("updated");
+
+        userService.deleteUser(owner.getId());
+
+        assertThrows(EntityNotFoundException.class, () -> userService.getUser(owner.getId()));
+    }
+
+    @Test
+    public void itemLookupsShouldBeCachedUntilItemIsUpdated() {
+        ItemDto item = itemService.addItem(new ItemDto(null, "Дрель", "Простая дрель", true), owner.getId());
+
+        assertThat(countStatements(() -> itemService.findItem(item.getId()))).isEqualTo(1);
+        assertThat(countStatements(() -> itemService.findItem(item.getId()))).isZero();
+
+        itemService.updateItem(new ItemDto(null, "Дрель ударная", null, null), owner.getId(), item.getId());
+
+        assertThat(itemService.findItem(item.getId()).getName()).isEqualTo("Дрель ударная");
+        assertThat(itemService.findItem(item.getId()).getOwner().getId()).isEqualTo(owner.getId());
+    }
+
+    @Test
+    public void ownerDeletionShouldEvictItems() {
+        ItemDto item = itemService.addItem(new ItemDto(null, "Дрель", "Простая дрель", true), owner.getId());
+        itemService.findItem(item.getId());
+
+        userService.deleteUser(owner.getId());
+
+        assertThrows(EntityNotFoundException.class, () -> itemService.findItem(item.getId()));
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class CommentCursorTest {
+
+    @Autowired
+    MockMvc mvc;
+    @Autowired
+    ObjectMapper mapper;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    CommentRepository commentRepository;
+
+    private User createUser(String name) {
+        return userRepository.save(new User(null, name, name + System.nanoTime() + "@user.com"));
+    }
+
+    private Item createItem(User owner) {
+        Item item = new Item(null, "Дрель", "Простая дрель", true);
+        item.setOwner(owner);
+        return itemRepository.save(item);
+    }
+
+    private MockHttpServletResponse readPage(Item item, String cursor) throws Exception {
+        MockHttpServletRequestBuilder request = get("/items/{itemId}/comments", item.getId())
+                .param("size", "2");
+        if (cursor != null) {
+            request.param("after", cursor);
+        }
+        return mvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+    }
+
+    private List<Long> ids(MockHttpServletResponse response) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode comment : mapper.readTree(response.getContentAsString())) {
+            ids.add(comment.get("id").asLong());
+        }
+        return ids;
+    }
+
+    @Test
+    public void nextCursorShouldWalkCommentsFromNewestToOldest() throws Exception {
+        User author = createUser("author");
+        Item item = createItem(createUser("owner"));
+        LocalDateTime created = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        long first = commentRepository.save(new Comment(null, "Отзыв 1", item, author, created.minusHours(1L))).getId();
+        long tieFirst = commentRepository.save(new Comment(null, "Отзыв 2", item, author, created)).getId();
+        long tieSecond = commentRepository.save(new Comment(null, "Отзыв 3", item, author, created)).getId();
+        long last = commentRepository.save(new Comment(null, "Отзыв 4", item, author, created.plusHours(1L))).getId();
+
+        List<Long> result = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletResponse response = readPage(item, cursor);
+            result.addAll(ids(response));
+            cursor = response.getHeader(Cursor.NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+
+        assertThat(result).containsExactly(last, tieSecond, tieFirst, first);
+    }
+
+    @Test
+    public void cursorOfDeletedOrForeignCommentShouldNotFailPage() throws Exception {
+        User author = createUser("author");
+        Item item = createItem(createUser("owner"));
+        Item otherItem = createItem(createUser("other"));
+        LocalDateTime created = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        long older = commentRepository.save(new Comment(null, "Отзыв", item, author, created.minusHours(1L))).getId();
+        Comment foreign = commentRepository.save(new Comment(null, "Чужой отзыв", otherItem, author, created));
+
+        assertThat(ids(readPage(item, Cursor.of(foreign.getCreated(), foreign.getId()).toString())))
+                .containsExactly(older);
+        assertThat(ids(readPage(item, Cursor.of(created.minusDays(1L), Long.MAX_VALUE).toString()))).isEmpty();
+    }
+}
@@ -5,11 +5,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -83,4 +86,63 @@ public class CommentRepositoryTest {
 
         assertEquals(1, commentRepository.findAllByItemId(item.getId()).size());
     }
+
+    @Test
+    public void checkFindLatestByItemIdIn() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        User user = userRepository.save(new User(null, "user1", "user@user.com"));
+        Item item = new Item(null, "Кухонный стол", "Стол для празднования", true);
+        item.setOwner(user);
+        itemRepository.save(item);
+        Item quietItem = new Item(null, "Дрель", "Простая дрель", true);
+        quietItem.setOwner(user);
+        itemRepository.save(quietItem);
+        for (int i = 0; i < 5; i++) {
+            commentRepository.save(new Comment(null, "Отзыв " + i, item, user, now.minusHours(5 - i)));
+        }
+        commentRepository.save(new Comment(null, "Единственный отзыв", quietItem, user, now));
+
+        List<LatestComment> rows = commentRepository.findLatestByItemIdIn(List.of(item.getId(), quietItem.getId()), 2);
+
+        assertThat(rows).extracting(LatestComment::getText)
+                .containsExactly("Отзыв 3", "Отзыв 4", "Единственный отзыв");
+        assertThat(rows).extracting(LatestComment::getTotal)
+                .containsExactly(5L, 5L, 1L);
+        assertThat(rows).extracting(LatestComment::getItemId)
+                .containsExactly(item.getId(), item.getId(), quietItem.getId());
+        assertThat(rows).extracting(LatestComment::getAuthorName)
+                .containsOnly("user1");
+        assertThat(rows).extracting(LatestComment::getCreated)
+                .containsExactly(now.minusHours(2L), now.minusHours(1L), now);
+    }
+
+    @Test
+    public void checkFindPageByItemIdAfter() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        User user = userRepository.save(new User(null, "user1", "user@user.com"));
+        Item item = new Item(null, "Кухонный стол", "Стол для празднования", true);
+        item.setOwner(user);
+        itemRepository.save(item);
+        Item otherItem = new Item(null, "Дрель", "Простая дрель", true);
+        otherItem.setOwner(user);
+        itemRepository.save(otherItem);
+        Comment oldest = commentRepository.save(new Comment(null, "Отзыв 1", item, user, now.minusHours(2L)));
+        Comment sameTimeFirst = commentRepository.save(new Comment(null, "Отзыв 2", item, user, now.minusHours(1L)));
+        Comment sameTimeSecond = commentRepository.save(new Comment(null, "Отзыв 3", item, user,
+                now.minusHours(1L)));
+        Comment newest = commentRepository.save(new Comment(null, "Отзыв 4", item, user, now));
+        commentRepository.save(new Comment(null, "Чужой отзыв", otherItem, user, now));
+
+        List<Comment> firstPage = commentRepository.findPageByItemId(item.getId(), PageRequest.of(0, 2));
+        Comment cursor = firstPage.get(firstPage.size() - 1);
+        List<Comment> secondPage = commentRepository.findPageByItemIdAfter(item.getId(), cursor.getCreated(),
+                cursor.getId(), PageRequest.of(0, 2));
+        cursor = secondPage.get(secondPage.size() - 1);
+        List<Comment> lastPage = commentRepository.findPageByItemIdAfter(item.getId(), cursor.getCreated(),
+                cursor.getId(), PageRequest.of(0, 2));
+
+        assertThat(firstPage).extracting(Comment::getId).containsExactly(newest.getId(), sameTimeSecond.getId());
+        assertThat(secondPage).extracting(Comment::getId).containsExactly(sameTimeFirst.getId(), oldest.getId());
+        assertThat(lastPage).isEmpty();
+    }
 }
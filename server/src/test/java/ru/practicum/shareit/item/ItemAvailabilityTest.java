@@ -0,0 +1,139 @@
+package ru.practicum.shareit.item;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.ShortBookingDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static java.time.format.DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class ItemAvailabilityTest {
+
+    @Autowired
+    MockMvc mvc;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void availabilityShouldFollowApprovalsWithoutReadingBookings() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1L).truncatedTo(ChronoUnit.SECONDS);
+        User owner = userRepository.save(new User(null, "owner", "owner" + System.nanoTime() + "@user.com"));
+        User booker = userRepository.save(new User(null, "booker", "booker" + System.nanoTime() + "@user.com"));
+        Item item = new Item(null, "Дрель", "Простая дрель", true);
+        item.setOwner(owner);
+        itemRepository.save(item);
+        BookingDto first = bookingService.addBooking(new ShortBookingDto(item.getId(), start.plusDays(1L),
+                start.plusDays(2L)), booker.getId());
+        BookingDto second = bookingService.addBooking(new ShortBookingDto(item.getId(), start.plusDays(2L),
+                start.plusDays(3L)), booker.getId());
+        bookingService.addBooking(new ShortBookingDto(item.getId(), start.plusDays(5L), start.plusDays(6L)),
+                booker.getId());
+        bookingService.updateBooking(first.getId(), owner.getId(), "true");
+        bookingService.updateBooking(second.getId(), owner.getId(), "true");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mvc.perform(get("/items/{itemId}/availability", item.getId())
+                        .param("from", start.toString())
+                        .param("to", start.plusDays(10L).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.busy", hasSize(1)))
+                .andExpect(jsonPath("$.busy[0].start").value(start.plusDays(1L).format(ISO_LOCAL_DATE_TIME)))
+                .andExpect(jsonPath("$.busy[0].end").value(start.plusDays(3L).format(ISO_LOCAL_DATE_TIME)))
+                .andExpect(jsonPath("$.free", hasSize(2)))
+                .andExpect(jsonPath("$.free[1].start").value(start.plusDays(3L).format(ISO_LOCAL_DATE_TIME)));
+        assertThat(statistics.getEntityStatistics(
+                "ru.practicum.shareit.booking.Booking").getLoadCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(1);
+
+        bookingService.updateBooking(first.getId(), owner.getId(), "false");
+        bookingService.deleteBooking(second.getId());
+        mvc.perform(get("/items/{itemId}/availability", item.getId())
+                        .param("from", start.toString())
+                        .param("to", start.plusDays(10L).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.busy", hasSize(0)))
+                .andExpect(jsonPath("$.free", hasSize(1)));
+    }
+
+    @Test
+    public void searchWithPeriodShouldSkipBookedItems() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1L).truncatedTo(ChronoUnit.SECONDS);
+        User owner = userRepository.save(new User(null, "owner", "owner" + System.nanoTime() + "@user.com"));
+        User booker = userRepository.save(new User(null, "booker", "booker" + System.nanoTime() + "@user.com"));
+        ItemDto booked = itemService.addItem(new ItemDto(null, "Перфоратор", "Перфоратор занят", true),
+                owner.getId());
+        ItemDto free = itemService.addItem(new ItemDto(null, "Перфоратор", "Перфоратор свободен", true),
+                owner.getId());
+        BookingDto booking = bookingService.addBooking(new ShortBookingDto(booked.getId(), start,
+                start.plusDays(2L)), booker.getId());
+        bookingService.updateBooking(booking.getId(), owner.getId(), "true");
+
+        mvc.perform(get("/items/search")
+                        .param("text", "перфоратор")
+                        .param("from", "0")
+                        .param("size", "10")
+                        .param("start", start.plusDays(1L).toString())
+                        .param("end", start.plusDays(3L).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(free.getId()));
+        mvc.perform(get("/items/search")
+                        .param("text", "перфоратор")
+                        .param("from", "0")
+                        .param("size", "10")
+                        .param("start", start.plusDays(2L).toString())
+                        .param("end", start.plusDays(3L).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+        mvc.perform(get("/items/search")
+                        .param("text", "перфоратор")
+                        .param("from", "0")
+                        .param("size", "10")
+                        .param("start", start.toString()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void availabilityOfUnknownItemOrEmptyWindowShouldFail() throws Exception {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        mvc.perform(get("/items/{itemId}/availability", Long.MAX_VALUE)
+                        .param("from", now.toString())
+                        .param("to", now.plusDays(1L).toString()))
+                .andExpect(status().isNotFound());
+        mvc.perform(get("/items/{itemId}/availability", 1L)
+                        .param("from", now.toString())
+                        .param("to", now.toString()))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -56,7 +56,7 @@ public class ItemControllerIntegrationTest {
     public void setUp() {
         itemDto = new ItemDto(null, "Дрель", "Простая дрель", true);
         itemFromDb = new ItemDto(null, "Дрель", "Простая дрель", true, null,
-                null, null, null);
+                null, null, null, null);
     }
 
     @Test
@@ -10,6 +10,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.mappers.EntityMapper;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.User;
 
 import java.nio.charset.StandardCharsets;
@@ -19,6 +20,7 @@ import java.util.Optional;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ItemController.class)
@@ -168,4 +170,35 @@ class ItemControllerTest {
 
         verify(itemService, times(1)).addComment(commentDto, item.getId(), user1.getId());
     }
+
+    @Test
+    void checkGetComments() throws Exception {
+        LocalDateTime created = LocalDateTime.of(2030, 1, 1, 12, 0);
+        CommentDto commentDto = new CommentDto(2L, "Add comment from user1", "user1", created);
+        Cursor cursor = Cursor.of(created.plusHours(1L), 5L);
+        when(itemService.getComments(item.getId(), cursor, 1))
+                .thenReturn(List.of(commentDto));
+
+        mockMvc.perform(get("/items/{itemId}/comments", item.getId())
+                        .param("after", cursor.toString())
+                        .param("size", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(Cursor.NEXT_CURSOR_HEADER, Cursor.of(created, 2L).toString()));
+
+        verify(itemService, times(1)).getComments(item.getId(), cursor, 1);
+    }
+
+    @Test
+    void getCommentsShouldNotReturnCursorForLastPage() throws Exception {
+        CommentDto commentDto = new CommentDto(2L, "Add comment from user1", "user1", LocalDateTime.now());
+        when(itemService.getComments(item.getId(), null, 10))
+                .thenReturn(List.of(commentDto));
+
+        mockMvc.perform(get("/items/{itemId}/comments", item.getId())
+                        .param("size", "10")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(Cursor.NEXT_CURSOR_HEADER));
+    }
 }
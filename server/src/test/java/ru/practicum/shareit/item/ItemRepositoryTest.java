@@ -7,9 +7,18 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.RequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
@@ -23,6 +32,8 @@ public class ItemRepositoryTest {
     ItemRepository itemRepository;
     @Autowired
     UserRepository userRepository;
+    @Autowired
+    RequestRepository requestRepository;
 
     @Test
     public void contextLoads() {
@@ -80,6 +91,31 @@ public class ItemRepositoryTest {
         assertEquals(1, itemRepository.searchByTextLikePage("Кух", pageable).getContent().size());
     }
 
+    @Test
+    public void checkSearchFreeByTextLikePage() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1L).truncatedTo(ChronoUnit.SECONDS);
+        User owner = userRepository.save(new User(null, "owner", "owner@user.com"));
+        User booker = userRepository.save(new User(null, "booker", "booker@user.com"));
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Item item = new Item(null, "Дрель " + i, "Простая дрель", true);
+            item.setOwner(owner);
+            items.add(itemRepository.save(item));
+        }
+        em.persist(new Booking(null, start, start.plusDays(2L), items.get(0), booker, Status.APPROVED));
+        em.persist(new Booking(null, start.plusDays(2L), start.plusDays(3L), items.get(1), booker,
+                Status.APPROVED));
+        em.persist(new Booking(null, start, start.plusDays(2L), items.get(2), booker, Status.WAITING));
+
+        List<Item> firstPage = itemRepository.searchFreeByTextLikePage("дрель", start.plusDays(1L),
+                start.plusDays(2L), Status.APPROVED, PageRequest.of(0, 2)).getContent();
+        List<Item> secondPage = itemRepository.searchFreeByTextLikePage("дрель", start.plusDays(1L),
+                start.plusDays(2L), Status.APPROVED, PageRequest.of(1, 2)).getContent();
+
+        assertEquals(List.of(items.get(1), items.get(2)), firstPage);
+        assertEquals(List.of(items.get(3)), secondPage);
+    }
+
     @Test
     public void checkFindAllByOwnerId() {
         Item item = new Item(1L,
@@ -94,4 +130,20 @@ public class ItemRepositoryTest {
 
         assertEquals(1, itemRepository.findAllByOwnerId(user.getId()).size());
     }
+
+    @Test
+    public void checkFindAllByRequestIdIn() {
+        User user = userRepository.save(new User(1L, "user1", "user@user.com"));
+        ItemRequest itemRequest = requestRepository.save(new ItemRequest(1L, "Нужен кухонный стол", user,
+                LocalDateTime.now()));
+        Item item = new Item(1L,
+                "Кухонный стол",
+                "Стол для празднования",
+                true);
+        item.setRequest(itemRequest);
+        itemRepository.save(item);
+        itemRepository.save(new Item(2L, "Дрель", "Простая дрель", true));
+
+        assertEquals(1, itemRepository.findAllByRequestIdIn(List.of(itemRequest.getId())).size());
+    }
 }
@@ -0,0 +1,164 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemSearchIndexTest {
+
+    @Mock
+    ItemRepository itemRepository;
+    ItemSearchIndex itemSearchIndex;
+    List<Item> items;
+
+    @BeforeEach
+    public void setup() {
+        itemSearchIndex = new ItemSearchIndex(itemRepository, true);
+        items = new ArrayList<>();
+        items.add(new Item(1L, "Дрель", "Простая дрель", true));
+        items.add(new Item(2L, "Отвёртка", "Аккумуляторная отвёртка, подойдёт вместо дрели", true));
+        items.add(new Item(3L, "Дрель ударная", "Мощная дрель", false));
+        items.add(new Item(4L, "Кухонный стол", "Стол для празднования", true));
+        items.add(new Item(5L, "Дрелька", "Маленькая дрель для хобби", true));
+    }
+
+    private void rebuild() {
+        when(itemRepository.findAllByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
+                .thenReturn(items);
+        itemSearchIndex.rebuild();
+    }
+
+    @Test
+    public void searchShouldFallBackIfIndexIsNotBuilt() {
+        assertThat(itemSearchIndex.search("дрель", 0, 10)).isEmpty();
+    }
+
+    @Test
+    public void searchShouldFallBackIfIndexIsDisabled() {
+        itemSearchIndex = new ItemSearchIndex(itemRepository, false);
+        itemSearchIndex.rebuild();
+
+        assertThat(itemSearchIndex.search("дрель", 0, 10)).isEmpty();
+    }
+
+    @Test
+    public void searchShouldFallBackIfTextIsTooShort() {
+        rebuild();
+
+        assertThat(itemSearchIndex.search("др", 0, 10)).isEmpty();
+    }
+
+    @Test
+    public void searchShouldFindAvailableItemsIgnoringCase() {
+        rebuild();
+
+        assertThat(itemSearchIndex.search("ДРЕЛ", 0, 10))
+                .hasValueSatisfying(ids -> assertThat(ids).containsExactlyInAnyOrder(1L, 2L, 5L));
+    }
+
+    @Test
+    public void searchShouldRankNameMatchesFirst() {
+        rebuild();
+
+        assertThat(itemSearchIndex.search("дрель", 0, 10))
+                .hasValueSatisfying(ids -> assertThat(ids).containsExactly(1L, 5L));
+        assertThat(itemSearchIndex.search("дрел", 0, 10))
+                .hasValueSatisfying(ids -> assertThat(ids).containsExactly(1L, 5L, 2L));
+    }
+
+    @Test
+    public void searchShouldReturnFullPages() {
+        rebuild();
+
+        assertThat(itemSearchIndex.search("дрел", 0, 2))
+                .hasValueSatisfying(ids -> assertThat(ids).containsExactly(1L, 5L));
+        assertThat(itemSearchIndex.search("дрел", 1, 2))
+                .hasValueSatisfying(ids -> assertThat(ids).containsExactly(2L));
+    }
+
+    @Test
+    public void filterShouldBeAppliedBeforePaging() {
+        rebuild();
+
+        assertThat(itemSearchIndex.search("дрел", 0, 1, id -> id != 1L))
+                .hasValueSatisfying(ids -> assertThat(ids).containsExactly(5L));
+        assertThat(itemSearchIndex.search("дрел", 1, 1, id -> id != 1L))
+                .hasValueSatisfying(ids -> assertThat(ids).containsExactly(2L));
+    }
+
+    @Test
+    public void searchShouldReturnEmptyListIfNothingMatches() {
+        rebuild();
+
+        assertThat(itemSearchIndex.search("пылесос", 0, 10))
+                .hasValueSatisfying(ids -> assertThat(ids).isEmpty());
+    }
+
+    @Test
+    public void indexAndRemoveShouldUpdateSearchResults() {
+        rebuild();
+        Item updatedItem = new Item(3L, "Дрель ударная", "Мощная дрель", true);
+
+        itemSearchIndex.index(updatedItem);
+        itemSearchIndex.remove(1L);
+
+        assertThat(itemSearchIndex.search("дрель", 0, 10))
+                .hasValueSatisfying(ids -> assertThat(ids).containsExactly(3L, 5L));
+    }
+
+    @Test
+    public void updatesCommittedOutOfOrderShouldKeepLatestItem() {
+        rebuild();
+        TransactionSynchronizationManager.initSynchronization();
+        List<TransactionSynchronization> first;
+        List<TransactionSynchronization> second;
+        try {
+            itemSearchIndex.index(new Item(4L, "Дрель настольная", "Стол под дрель", true));
+            first = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationManager.clearSynchronization();
+            TransactionSynchronizationManager.initSynchronization();
+            itemSearchIndex.index(new Item(4L, "Кухонный стол", "Стол для празднования", false));
+            second = TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        second.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        first.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertThat(itemSearchIndex.search("дрель", 0, 10))
+                .hasValueSatisfying(ids -> assertThat(ids).doesNotContain(4L));
+        assertThat(itemSearchIndex.search("стол", 0, 10))
+                .hasValueSatisfying(ids -> assertThat(ids).isEmpty());
+    }
+
+    @Test
+    public void rebuildShouldLoadItemsInBatches() {
+        List<Item> firstBatch = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            firstBatch.add(new Item(id, "Вещь " + id, "Описание", true));
+        }
+        when(itemRepository.findAllByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class)))
+                .thenReturn(firstBatch, List.of(new Item(1001L, "Дрель", "Простая дрель", true)));
+
+        itemSearchIndex.rebuild();
+
+        assertThat(itemSearchIndex.isReady()).isTrue();
+        assertThat(itemSearchIndex.search("дрель", 0, 10))
+                .hasValueSatisfying(ids -> assertThat(ids).containsExactly(1001L));
+    }
+}
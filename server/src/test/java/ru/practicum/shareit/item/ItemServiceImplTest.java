@@ -10,8 +10,11 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingOccupancyIndex;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.Status;
 import ru.practicum.shareit.booking.dto.ShortBookingDto;
@@ -20,6 +23,7 @@ import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.mappers.EntityMapper;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.RequestRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
@@ -30,11 +34,16 @@ import ru.practicum.shareit.user.UserServiceImpl;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @Transactional
@@ -57,6 +66,10 @@ public class ItemServiceImplTest {
     UserServiceImpl userService;
     @Mock
     RequestRepository requestRepository;
+    @Mock
+    ItemSearchIndex itemSearchIndex;
+    @Mock
+    BookingOccupancyIndex bookingOccupancyIndex;
     User user1;
     ItemDto itemDto;
     Item item;
@@ -65,6 +78,12 @@ public class ItemServiceImplTest {
     Comment comment2;
     Comment comment3;
 
+    private LatestComment latestComment(long id, String text, LocalDateTime created, long total) {
+        return new SpelAwareProxyProjectionFactory().createProjection(LatestComment.class, Map.of(
+                "commentId", id, "itemId", item.getId(), "text", text, "authorName", "user1",
+                "created", created, "total", total));
+    }
+
     @BeforeEach
     public void setup() {
         LocalDateTime now = LocalDateTime.now();
@@ -145,7 +164,7 @@ public class ItemServiceImplTest {
                 .thenReturn(item);
         Item convertedItem = entityMapper.itemDtoToItem(itemDto);
         convertedItem.setOwner(user1);
-        when(itemRepository.save(convertedItem))
+        when(itemRepository.saveAndFlush(convertedItem))
                 .thenReturn(item);
         when(entityMapper.itemToItemDto(item))
                 .thenReturn(itemDto);
@@ -195,7 +214,7 @@ public class ItemServiceImplTest {
                 .thenReturn(Optional.of(item));
         when(bookingRepository.findByItemId(item.getId()))
                 .thenReturn(bookings);
-        when(commentRepository.findAllByItemId(item.getId()))
+        when(commentRepository.findAllByItemIdIn(List.of(item.getId())))
                 .thenReturn(comments);
         when(entityMapper.itemToItemDto(item))
                 .thenReturn(itemDto);
@@ -216,15 +235,11 @@ public class ItemServiceImplTest {
 
     @Test
     public void checkGetItemIfBookingsIsEmpty() {
-        List<Comment> comments = new ArrayList<>();
-        comments.add(comment);
         List<Booking> bookings = new ArrayList<>();
         when(itemRepository.findById(item.getId()))
                 .thenReturn(Optional.of(item));
         when(bookingRepository.findByItemId(item.getId()))
                 .thenReturn(bookings);
-        when(commentRepository.findAllByItemId(item.getId()))
-                .thenReturn(comments);
         when(entityMapper.itemToItemDto(item))
                 .thenReturn(itemDto);
 
@@ -242,7 +257,7 @@ public class ItemServiceImplTest {
                 .thenReturn(Optional.of(item));
         when(bookingRepository.findByItemId(item.getId()))
                 .thenReturn(null);
-        when(commentRepository.findAllByItemId(item.getId()))
+        when(commentRepository.findAllByItemIdIn(List.of(item.getId())))
                 .thenReturn(comments);
         when(entityMapper.commentToCommentDto(comment))
                 .thenReturn(commentDto);
@@ -280,13 +295,10 @@ public class ItemServiceImplTest {
                 .thenReturn(pagedItems);
         when(userRepository.existsById(user1.getId()))
                 .thenReturn(true);
-        when(bookingRepository.getAllBookingsInfoByOwner(user1.getId()))
+        when(bookingRepository.findLastAndNextBookingsByItemIdIn(eq(List.of(item.getId())), eq(Status.APPROVED),
+                any(LocalDateTime.class)))
                 .thenReturn(bookings);
-        when(bookingRepository.findByItemId(item.getId()))
-                .thenReturn(bookings);
-        when(bookingRepository.findAllByItemInAndStatusOrderByStartAsc(items, Status.APPROVED))
-                .thenReturn(bookings);
-        when(commentRepository.findAllByAuthorId(user1.getId()))
+        when(commentRepository.findAllByItemIdIn(List.of(item.getId())))
                 .thenReturn(comments);
         when(entityMapper.itemToItemDto(item))
                 .thenReturn(itemDto);
@@ -305,6 +317,87 @@ public class ItemServiceImplTest {
                 .isNotNull();
     }
 
+    @Test
+    public void getItemsShouldChooseLastAndNextBookingOfEachItem() {
+        LocalDateTime now = LocalDateTime.now();
+        Item item2 = new Item(2L, "Дрель", "Простая дрель", true);
+        Booking pastLongest = new Booking(1L, now.minusDays(5L), now.minusDays(1L), item, user1, Status.APPROVED);
+        Booking past = new Booking(2L, now.minusDays(3L), now.minusDays(2L), item, user1, Status.APPROVED);
+        Booking futureLater = new Booking(3L, now.plusDays(3L), now.plusDays(4L), item, user1, Status.APPROVED);
+        Booking futureNearest = new Booking(4L, now.plusDays(1L), now.plusDays(2L), item, user1, Status.APPROVED);
+        Booking otherItemPast = new Booking(5L, now.minusDays(2L), now.minusDays(1L), item2, user1,
+                Status.APPROVED);
+        Pageable pageable = PageRequest.of(0, 20);
+        when(userRepository.existsById(user1.getId()))
+                .thenReturn(true);
+        when(itemRepository.findAllByOwnerIdOrderByIdAsc(user1.getId(), pageable))
+                .thenReturn(new PageImpl<>(List.of(item, item2)));
+        when(bookingRepository.findLastAndNextBookingsByItemIdIn(eq(List.of(item.getId(), item2.getId())),
+                eq(Status.APPROVED), any(LocalDateTime.class)))
+                .thenReturn(List.of(past, futureLater, otherItemPast, pastLongest, futureNearest));
+        when(commentRepository.findAllByItemIdIn(List.of(item.getId(), item2.getId())))
+                .thenReturn(new ArrayList<>());
+        when(entityMapper.itemToItemDto(item))
+                .thenReturn(itemDto);
+        when(entityMapper.itemToItemDto(item2))
+                .thenReturn(new ItemDto(item2.getId(), item2.getName(), item2.getDescription(), true));
+
+        assertThat(itemService.getItems(user1.getId(), 0, 20))
+                .hasSize(2);
+        verify(entityMapper).bookingToLastBooking(pastLongest);
+        verify(entityMapper).bookingToNextBooking(futureNearest);
+        verify(entityMapper).bookingToLastBooking(otherItemPast);
+        verify(entityMapper, times(2)).bookingToLastBooking(any());
+        verify(entityMapper, times(1)).bookingToNextBooking(any());
+    }
+
+    @Test
+    public void getItemsShouldKeepLatestCommentsAndTotalCountIfLimitIsSet() {
+        LocalDateTime now = LocalDateTime.now();
+        ReflectionTestUtils.setField(itemService, "commentsLimit", 2);
+        Pageable pageable = PageRequest.of(0, 20);
+        when(userRepository.existsById(user1.getId()))
+                .thenReturn(true);
+        when(itemRepository.findAllByOwnerIdOrderByIdAsc(user1.getId(), pageable))
+                .thenReturn(new PageImpl<>(List.of(item)));
+        when(bookingRepository.findLastAndNextBookingsByItemIdIn(eq(List.of(item.getId())), eq(Status.APPROVED),
+                any(LocalDateTime.class)))
+                .thenReturn(new ArrayList<>());
+        when(commentRepository.findLatestByItemIdIn(List.of(item.getId()), 2))
+                .thenReturn(List.of(
+                        latestComment(4L, "Отзыв 4", now.minusHours(1L), 5L),
+                        latestComment(5L, "Отзыв 5", now, 5L)));
+        when(entityMapper.itemToItemDto(item))
+                .thenReturn(itemDto);
+
+        List<ItemDto> items = itemService.getItems(user1.getId(), 0, 20);
+
+        assertThat(items).hasSize(1);
+        assertThat(items.get(0).getComments())
+                .extracting(CommentDto::getText)
+                .containsExactly("Отзыв 4", "Отзыв 5");
+        assertThat(items.get(0).getComments().get(1).getCreated()).isEqualTo(now);
+        assertThat(items.get(0).getCommentsCount()).isEqualTo(5L);
+        verify(commentRepository, times(0)).findAllByItemIdIn(any());
+    }
+
+    @Test
+    public void checkGetCommentsAfterCursor() {
+        CommentDto commentDto3 = new CommentDto(2L, "Add new comment from user1", "user",
+                comment3.getCreated());
+        when(itemRepository.findById(item.getId()))
+                .thenReturn(Optional.of(item));
+        when(commentRepository.findPageByItemIdAfter(item.getId(), comment.getCreated(), comment.getId(),
+                PageRequest.of(0, 10)))
+                .thenReturn(List.of(comment3));
+        when(entityMapper.commentToCommentDto(comment3))
+                .thenReturn(commentDto3);
+
+        assertThat(itemService.getComments(item.getId(), Cursor.of(comment.getCreated(), comment.getId()), 10))
+                .containsExactly(commentDto3);
+        verify(commentRepository, times(0)).findById(any());
+    }
+
     @Test
     public void checkSearchItemsIfTextIsNull() {
         assertThat(itemService.searchItem(null, 1, 20))
@@ -320,6 +413,21 @@ public class ItemServiceImplTest {
         assertNotNull(itemService.searchItem(item.getName(), 0, 20));
     }
 
+    @Test
+    public void checkSearchItemsIfIndexIsReady() {
+        Item unavailableItem = new Item(2L, "Кухонный стул", "Стул для празднования", false);
+        when(itemSearchIndex.search("кухон", 0, 20))
+                .thenReturn(Optional.of(List.of(2L, 1L, 3L)));
+        when(itemRepository.findAllById(List.of(2L, 1L, 3L)))
+                .thenReturn(List.of(item, unavailableItem));
+        when(entityMapper.itemToItemDto(item))
+                .thenReturn(itemDto);
+
+        assertThat(itemService.searchItem("кухон", 0, 20))
+                .containsExactly(itemDto);
+        verify(itemSearchIndex, times(1)).remove(3L);
+    }
+
     @Test
     public void deleteItemShouldThrowExceptionIfItemNotExists() {
         assertThrows(EntityNotFoundException.class, () -> itemService.deleteItem(100));
@@ -369,7 +477,7 @@ public class ItemServiceImplTest {
                 .thenReturn(Optional.of(item2));
         when(bookingRepository.findByItemId(item2.getId()))
                 .thenReturn(bookings);
-        when(commentRepository.findAllByItemId(item2.getId()))
+        when(commentRepository.findAllByItemIdIn(List.of(item2.getId())))
                 .thenReturn(comments);
         when(entityMapper.itemToItemDto(item2))
                 .thenReturn(itemDto2);
@@ -403,13 +511,12 @@ public class ItemServiceImplTest {
         comments.add(comment2);
         comments.add(comment3);
         List<Booking> bookings = new ArrayList<>();
-        bookings.add(new Booking(3L, LocalDateTime.of(2024, 5, 5, 23, 30),
-                LocalDateTime.of(2024, 6, 6, 20, 15), item, user1, Status.APPROVED));
+        bookings.add(new Booking(3L, now.minusDays(5L), now.plusDays(5L), item, user1, Status.APPROVED));
         when(itemRepository.findById(item.getId()))
                 .thenReturn(Optional.of(item));
         when(bookingRepository.findByItemId(item.getId()))
                 .thenReturn(bookings);
-        when(commentRepository.findAllByItemId(item.getId()))
+        when(commentRepository.findAllByItemIdIn(List.of(item.getId())))
                 .thenReturn(comments);
         when(entityMapper.itemToItemDto(item))
                 .thenReturn(itemDto);
@@ -446,7 +553,7 @@ public class ItemServiceImplTest {
                 .thenReturn(Optional.of(item));
         when(bookingRepository.findByItemId(item.getId()))
                 .thenReturn(bookings);
-        when(commentRepository.findAllByItemId(item.getId()))
+        when(commentRepository.findAllByItemIdIn(List.of(item.getId())))
                 .thenReturn(comments);
         when(entityMapper.itemToItemDto(item))
                 .thenReturn(itemDto);
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.item;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class ItemServiceQueryCountTest {
+
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    CommentRepository commentRepository;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    Statistics statistics;
+    User booker;
+
+    @BeforeEach
+    public void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        booker = userRepository.save(new User(null, "booker", "booker" + System.nanoTime() + "@user.com"));
+    }
+
+    private User createOwnerWithItems(int itemsCount) {
+        LocalDateTime now = LocalDateTime.now();
+        User owner = userRepository.save(new User(null, "owner", "owner" + System.nanoTime() + "@user.com"));
+        for (int i = 0; i < itemsCount; i++) {
+            Item item = new Item(null, "Дрель " + i, "Простая дрель", true);
+            item.setOwner(owner);
+            itemRepository.save(item);
+            bookingRepository.save(new Booking(null, now.minusDays(2L), now.minusDays(1L), item, booker,
+                    Status.APPROVED));
+            bookingRepository.save(new Booking(null, now.plusDays(1L), now.plusDays(2L), item, booker,
+                    Status.APPROVED));
+            commentRepository.save(new Comment(null, "Отличная дрель", item, booker, now));
+        }
+        return owner;
+    }
+
+    private long countStatementsOfGetItems(User owner, int size) {
+        statistics.clear();
+        assertThat(itemService.getItems(owner.getId(), 0, size))
+                .allSatisfy(itemDto -> {
+                    assertThat(itemDto.getLastBooking()).isNotNull();
+                    assertThat(itemDto.getNextBooking()).isNotNull();
+                    assertThat(itemDto.getComments()).hasSize(1);
+                });
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    public void getItemsShouldExecuteConstantNumberOfStatementsRegardlessOfPageSize() {
+        User smallOwner = createOwnerWithItems(2);
+        User largeOwner = createOwnerWithItems(20);
+
+        long smallPageStatements = countStatementsOfGetItems(smallOwner, 2);
+        long largePageStatements = countStatementsOfGetItems(largeOwner, 20);
+
+        assertThat(largePageStatements)
+                .isEqualTo(smallPageStatements)
+                .isLessThanOrEqualTo(5);
+    }
+}
@@ -7,6 +7,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.Status;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.LastBooking;
 import ru.practicum.shareit.booking.dto.NextBooking;
@@ -184,26 +185,30 @@ public class EntityMapperTest {
 
     @Test
     public void checkBookingDtoToBooking() {
-        BookingDto bookingDto = new BookingDto(1L, shortBookingDto.getStart(), shortBookingDto.getEnd(), item, user1);
+        BookingDto bookingDto = new BookingDto(1L, shortBookingDto.getStart(), shortBookingDto.getEnd(), itemDto,
+                userDto);
         Booking newBooking = entityMapper.bookingDtoToBooking(bookingDto);
 
         assertThat(newBooking).isNotNull();
         assertThat(newBooking.getId()).isEqualTo(bookingDto.getId());
         assertThat(newBooking.getStart()).isEqualTo(bookingDto.getStart());
-        assertThat(newBooking.getItem()).isEqualTo(bookingDto.getItem());
-        assertThat(newBooking.getBooker()).isEqualTo(bookingDto.getBooker());
+        assertThat(newBooking.getItem().getId()).isEqualTo(itemDto.getId());
+        assertThat(newBooking.getBooker().getId()).isEqualTo(userDto.getId());
     }
 
     @Test
     public void checkBookingToBookingDto() {
-        Booking booking = new Booking(1L, shortBookingDto.getStart(), shortBookingDto.getEnd(), item, user1);
+        Booking booking = new Booking(1L, shortBookingDto.getStart(), shortBookingDto.getEnd(), item, user1,
+                Status.WAITING);
         BookingDto bookingDto = entityMapper.bookingToBookingDto(booking);
 
         assertThat(bookingDto).isNotNull();
         assertThat(bookingDto.getId()).isEqualTo(booking.getId());
         assertThat(bookingDto.getStart()).isEqualTo(booking.getStart());
-        assertThat(bookingDto.getItem()).isEqualTo(booking.getItem());
-        assertThat(bookingDto.getBooker()).isEqualTo(booking.getBooker());
+        assertThat(bookingDto.getItem()).isEqualTo(new ItemDto(item.getId(), item.getName(), item.getDescription(),
+                item.getAvailable()));
+        assertThat(bookingDto.getBooker()).isEqualTo(new UserDto(user1.getId(), user1.getName(), user1.getEmail()));
+        assertThat(bookingDto.getStatus()).isEqualTo(Status.WAITING);
     }
 
     @Test
@@ -8,6 +8,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.mappers.RequestMapper;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.user.User;
 
@@ -20,6 +21,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ItemRequestController.class)
@@ -108,4 +110,22 @@ class ItemRequestControllerTest {
 
         verify(requestService, times(1)).getOthersRequests(user1.getId(), 0, 20);
     }
+
+    @Test
+    void checkAllRequestsAfterCursor() throws Exception {
+        Cursor after = Cursor.of(itemRequest.getCreated().plusMinutes(1L), 5L);
+        when(requestService.getOthersRequestsAfter(user1.getId(), after, 1))
+                .thenReturn(List.of(itemRequestDtoAfterSave));
+
+        mockMvc.perform(get("/requests/all")
+                        .header("X-Sharer-User-Id", user1.getId())
+                        .param("from", "0")
+                        .param("size", "1")
+                        .param("after", after.toString()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(Cursor.NEXT_CURSOR_HEADER,
+                        Cursor.of(itemRequest.getCreated(), itemRequest.getId()).toString()));
+
+        verify(requestService, times(1)).getOthersRequestsAfter(user1.getId(), after, 1);
+    }
 }
@@ -5,12 +5,18 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -51,4 +57,50 @@ class RequestRepositoryTest {
 
         assertEquals(1, requestRepository.findAllByRequesterIdOrderByCreatedDesc(savedUser.getId()).size());
     }
+
+    @Test
+    public void checkFindAllByRequesterIdNotWithKeyset() {
+        User savedUser = userRepository.save(user1);
+        User otherUser = userRepository.save(new User(2L, "user2", "user@another.com"));
+        LocalDateTime created = LocalDateTime.now().withNano(0);
+        requestRepository.save(new ItemRequest(null, "Свой запрос", savedUser, created));
+        ItemRequest first = requestRepository.save(new ItemRequest(null, "Запрос 1", otherUser, created));
+        ItemRequest second = requestRepository.save(new ItemRequest(null, "Запрос 2", otherUser, created));
+        ItemRequest third = requestRepository.save(new ItemRequest(null, "Запрос 3", otherUser,
+                created.minusDays(1L)));
+
+        List<ItemRequest> firstPage = requestRepository.findAllByRequesterIdNot(savedUser.getId(),
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "created")
+                        .and(Sort.by(Sort.Direction.DESC, "id"))));
+        ItemRequest last = firstPage.get(firstPage.size() - 1);
+        List<ItemRequest> secondPage = requestRepository.findAllByRequesterIdNotAfter(savedUser.getId(),
+                last.getCreated(), last.getId(), PageRequest.ofSize(2));
+
+        assertEquals(List.of(second.getId(), first.getId()), firstPage.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList()));
+        assertEquals(List.of(third.getId()), secondPage.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void checkFindAllByRequesterIdNotFromUnalignedOffset() {
+        User savedUser = userRepository.save(user1);
+        User otherUser = userRepository.save(new User(2L, "user2", "user@another.com"));
+        LocalDateTime created = LocalDateTime.now().withNano(0);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            ids.add(requestRepository.save(new ItemRequest(null, "Запрос " + i, otherUser,
+                    created.minusHours(i))).getId());
+        }
+
+        List<ItemRequest> page = requestRepository.findAllByRequesterIdNot(savedUser.getId(),
+                OffsetPageRequest.of(5, 10, Sort.by(Sort.Direction.DESC, "created")
+                        .and(Sort.by(Sort.Direction.DESC, "id"))));
+
+        assertEquals(ids.subList(5, 12), page.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList()));
+    }
 }
@@ -6,15 +6,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingOccupancyIndex;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemRepository;
-import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.ItemSearchIndex;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.mappers.EntityMapper;
 import ru.practicum.shareit.mappers.RequestMapper;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserServiceImpl;
@@ -25,6 +31,7 @@ import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @Transactional
@@ -40,11 +47,13 @@ public class RequestServiceImplTest {
     @Mock
     UserServiceImpl userService;
     @Mock
-    ItemService itemService;
-    @Mock
     ItemRepository itemRepository;
     @Mock
     EntityMapper entityMapper;
+    @Mock
+    BookingOccupancyIndex bookingOccupancyIndex;
+    @Mock
+    ItemSearchIndex itemSearchIndex;
     User user1;
     ItemRequestDto itemRequestDto;
     ItemRequest itemRequest;
@@ -86,24 +95,28 @@ public class RequestServiceImplTest {
     @Test
     public void checkGetRequest() {
         Item item = new Item(1L, itemDto.getName(), itemDto.getDescription(), itemDto.getAvailable());
+        item.setRequest(itemRequest);
         when(userService.findUser(user1.getId()))
                 .thenReturn(user1);
         when(requestMapper.requestToRequestDto(itemRequest))
                 .thenReturn(itemRequestDto);
         when(requestRepository.findById(itemRequest.getId()))
                 .thenReturn(Optional.of(itemRequest));
-        when(itemRepository.findAll())
+        when(itemRepository.findAllByRequestIdIn(List.of(itemRequest.getId())))
                 .thenReturn(List.of(item));
         when(entityMapper.itemToItemDto(item))
                 .thenReturn(itemDto);
-        when(itemService.searchItem("стол", null, null))
-                .thenReturn(List.of(itemDto));
-        itemRequestDto.setItems(itemService.searchItem("стол", null, null));
 
-        assertThat(requestService.getItemRequest(user1.getId(), itemRequest.getId()))
+        Optional<ItemRequestDto> result = requestService.getItemRequest(user1.getId(), itemRequest.getId());
+
+        assertThat(result)
                 .isNotNull()
                 .usingRecursiveComparison()
                 .isEqualTo(Optional.of(itemRequestDto));
+        assertThat(result.orElseThrow().getItems())
+                .containsExactly(itemDto);
+        assertThat(itemDto.getRequestId())
+                .isEqualTo(itemRequest.getId());
     }
 
     @Test
@@ -115,44 +128,73 @@ public class RequestServiceImplTest {
 
     @Test
     public void checkGetYoursRequest() {
+        ItemRequest emptyRequest = new ItemRequest(2L, "Хотел бы воспользоваться дрелью", user1,
+                itemRequestDto.getCreated());
+        ItemRequestDto emptyRequestDto = new ItemRequestDto(2L, emptyRequest.getDescription(),
+                emptyRequest.getCreated());
         Item item = new Item(1L, itemDto.getName(), itemDto.getDescription(), itemDto.getAvailable());
+        item.setRequest(itemRequest);
         when(userService.findUser(user1.getId()))
                 .thenReturn(user1);
         when(requestMapper.requestToRequestDto(itemRequest))
                 .thenReturn(itemRequestDto);
+        when(requestMapper.requestToRequestDto(emptyRequest))
+                .thenReturn(emptyRequestDto);
         when(requestRepository.findAllByRequesterIdOrderByCreatedDesc(user1.getId()))
-                .thenReturn(List.of(itemRequest));
-        when(itemRepository.findAll())
+                .thenReturn(List.of(itemRequest, emptyRequest));
+        when(itemRepository.findAllByRequestIdIn(List.of(itemRequest.getId(), emptyRequest.getId())))
                 .thenReturn(List.of(item));
         when(entityMapper.itemToItemDto(item))
                 .thenReturn(itemDto);
-        when(itemService.searchItem(itemDto.getName(), 1, 10))
-                .thenReturn(List.of(itemDto));
-        itemRequestDto.setItems(itemService.searchItem(itemDto.getName(), 1, 10));
 
-        assertThat(requestService.getYoursRequest(user1.getId()))
-                .isNotNull()
-                .usingRecursiveComparison()
-                .isEqualTo(List.of(itemRequestDto));
+        List<ItemRequestDto> result = requestService.getYoursRequest(user1.getId());
+
+        assertThat(result)
+                .containsExactly(itemRequestDto, emptyRequestDto);
+        assertThat(result.get(0).getItems())
+                .containsExactly(itemDto);
+        assertThat(result.get(1).getItems())
+                .isEmpty();
     }
 
     @Test
     public void checkGetOtherRequest() {
-        Item item = new Item(1L, itemDto.getName(), itemDto.getDescription(), itemDto.getAvailable());
-        when(requestRepository.findAll())
+        Pageable pageable = OffsetPageRequest.of(20, 20, Sort.by(Sort.Direction.DESC, "created")
+                .and(Sort.by(Sort.Direction.DESC, "id")));
+        when(requestRepository.findAllByRequesterIdNot(2L, pageable))
                 .thenReturn(List.of(itemRequest));
-        when(itemRepository.findAll())
-                .thenReturn(List.of(item));
-        when(entityMapper.itemToItemDto(item))
-                .thenReturn(itemDto);
-        when(itemService.searchItem(itemDto.getName(), 1, 10))
-                .thenReturn(List.of(itemDto));
-        itemRequestDto.setItems(itemService.searchItem(itemDto.getName(), 1, 10));
+        when(requestMapper.requestToRequestDto(itemRequest))
+                .thenReturn(itemRequestDto);
+        when(itemRepository.findAllByRequestIdIn(List.of(itemRequest.getId())))
+                .thenReturn(List.of());
 
+        assertThat(requestService.getOthersRequests(2L, 20, 20))
+                .containsExactly(itemRequestDto);
+    }
+
+    @Test
+    public void checkGetOtherRequestIfPageIsEmpty() {
         assertThat(requestService.getOthersRequests(user1.getId(), 0, 20))
-                .isNotNull()
-                .usingRecursiveComparison()
-                .isEqualTo(List.of());
+                .isEmpty();
+    }
+
+    @Test
+    public void checkGetOtherRequestAfterCursor() {
+        LocalDateTime created = itemRequest.getCreated().plusMinutes(5L);
+        when(requestRepository.findAllByRequesterIdNotAfter(2L, created, 7L, PageRequest.ofSize(10)))
+                .thenReturn(List.of(itemRequest));
+        when(requestMapper.requestToRequestDto(itemRequest))
+                .thenReturn(itemRequestDto);
+        when(itemRepository.findAllByRequestIdIn(List.of(itemRequest.getId())))
+                .thenReturn(List.of());
+
+        assertThat(requestService.getOthersRequestsAfter(2L, Cursor.of(created, 7L), 10))
+                .containsExactly(itemRequestDto);
+    }
+
+    @Test
+    public void getOtherRequestShouldThrowExceptionIfSizeIsZero() {
+        assertThrows(IllegalArgumentException.class, () -> requestService.getOthersRequests(user1.getId(), 5, 0));
     }
 
     @Test
@@ -166,8 +208,14 @@ public class RequestServiceImplTest {
                 .thenReturn(Optional.of(itemRequest));
         when(userService.findUser(user1.getId()))
                 .thenReturn(user1);
+        when(itemRepository.findIdsByRequestId(itemRequest.getId()))
+                .thenReturn(List.of(5L));
 
         requestService.removeRequest(user1.getId(), itemRequest.getId());
+
+        verify(requestRepository).delete(itemRequest);
+        verify(bookingOccupancyIndex).removeItem(5L);
+        verify(itemSearchIndex).remove(5L);
     }
 
     @Test
@@ -7,7 +7,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingOccupancyIndex;
 import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemSearchIndex;
 import ru.practicum.shareit.mappers.EntityMapper;
 import ru.practicum.shareit.user.dto.UserDto;
 
@@ -16,6 +19,7 @@ import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @Transactional
@@ -28,6 +32,12 @@ public class UserServiceImplTest {
     UserRepository userRepository;
     @Mock
     EntityMapper entityMapper;
+    @Mock
+    BookingOccupancyIndex bookingOccupancyIndex;
+    @Mock
+    ItemSearchIndex itemSearchIndex;
+    @Mock
+    ItemRepository itemRepository;
     UserDto userDto;
     User user1;
 
@@ -107,8 +117,6 @@ public class UserServiceImplTest {
 
     @Test
     public void checkGetUser() {
-        when(userRepository.existsById(user1.getId()))
-                .thenReturn(true);
         when(userRepository.findById(user1.getId()))
                 .thenReturn(Optional.of(user1));
         when(userService.getUser(user1.getId()))
@@ -143,6 +151,14 @@ public class UserServiceImplTest {
 
     @Test
     public void checkDeleteUser() {
+        when(itemRepository.findIdsByOwnerIdOrRequesterId(user1.getId()))
+                .thenReturn(List.of(5L));
+
         userService.deleteUser(user1.getId());
+
+        verify(userRepository).deleteById(user1.getId());
+        verify(bookingOccupancyIndex).removeBooker(user1.getId());
+        verify(bookingOccupancyIndex).removeItem(5L);
+        verify(itemSearchIndex).remove(5L);
     }
 }